@@ -123,7 +123,7 @@ public class DateTimeFunctions {
 
     public static Date addSecondsToGivenTime(Date time, int numberOfSeconds){
         Calendar calendar = toCalendar(time);
-        calendar.add(MINUTE, numberOfSeconds);
+        calendar.add(SECOND, numberOfSeconds);
         return calendar.getTime();
     }
 
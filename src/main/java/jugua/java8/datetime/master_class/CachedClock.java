@@ -0,0 +1,171 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DateTimeHacking
+ *
+ * Coarse clock for stamping lots of events with current date/time. A background thread
+ * reads system time once per tick and publishes a snapshot with epoch millis, current
+ * date and date/time in clock zone and current time formatted with registered patterns,
+ * so callers get all of them by a single volatile read without system calls or allocation.
+ *
+ * Time returned lags behind system time by up to one tick and may stay the same for
+ * the whole tick, so it suits timestamping, not measuring short intervals. Failed ticks
+ * (e.g. source clock throwing) keep previous snapshot and are counted, the ticker goes on.
+ *
+ *   try (CachedClock clock = new CachedClock(ZoneId.of("Europe/Kiev"), 10, "dd/MM/yyyy HH:mm:ss")) {
+ *       String stamp = clock.format("dd/MM/yyyy HH:mm:ss");
+ *   }
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class CachedClock extends Clock implements AutoCloseable {
+
+    private final Clock source;
+    private final ZoneId zone;
+    private final Map<String, CompiledDatePattern> patterns = new HashMap<>();
+    private final ScheduledExecutorService ticker;
+    private volatile Snapshot snapshot;
+    private final AtomicLong failedTicks = new AtomicLong();
+    private volatile RuntimeException lastTickFailure;
+
+    public CachedClock(ZoneId zone, long tickMillis, String... formatPatterns) {
+        this(Clock.system(zone), tickMillis, formatPatterns);
+    }
+
+    //Caches given clock, e.g. FakeClock in tests
+    public CachedClock(Clock source, long tickMillis, String... formatPatterns) {
+        if (tickMillis <= 0) throw new UnsupportedOperationException("Tick should be positive number of milliseconds");
+        this.source = source;
+        this.zone = source.getZone();
+        for (String pattern : formatPatterns) {
+            patterns.put(pattern, CompiledDatePattern.compile(pattern));
+        }
+        tick();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cached-clock-" + zone);
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tickInBackground, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //Exception escaping a scheduled task cancels it silently, which would freeze the clock
+    private void tickInBackground() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            lastTickFailure = e;
+            failedTicks.incrementAndGet();
+        }
+    }
+
+    public long failedTicks() {
+        return failedTicks.get();
+    }
+
+    //Null if no background tick has failed yet
+    public RuntimeException lastTickFailure() {
+        return lastTickFailure;
+    }
+
+    //Takes a fresh snapshot of source clock, called by ticker thread
+    public void tick() {
+        Snapshot previous = snapshot;
+        long millis = source.millis();
+        if (previous != null && previous.millis == millis) return;
+        LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+        LocalDate date = previous != null && previous.date.equals(dateTime.toLocalDate()) ? previous.date : dateTime.toLocalDate();
+        Map<String, String> formatted = new HashMap<>(patterns.size() * 2);
+        for (Map.Entry<String, CompiledDatePattern> pattern : patterns.entrySet()) {
+            formatted.put(pattern.getKey(), pattern.getValue().format(dateTime));
+        }
+        snapshot = new Snapshot(millis, Instant.ofEpochMilli(millis), date, dateTime, formatted);
+    }
+
+    @Override
+    public long millis() {
+        return snapshot.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return snapshot.instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    //Clock in other zone reading the same cached time, without precomputed dates
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (zone.equals(this.zone)) return this;
+        CachedClock cached = this;
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId otherZone) {
+                return cached.withZone(otherZone);
+            }
+
+            @Override
+            public Instant instant() {
+                return cached.instant();
+            }
+
+            @Override
+            public long millis() {
+                return cached.millis();
+            }
+        };
+    }
+
+    public LocalDate today() {
+        return snapshot.date;
+    }
+
+    public LocalDateTime now() {
+        return snapshot.dateTime;
+    }
+
+    //Current date/time in pattern registered in constructor, other patterns are formatted on every call
+    public String format(String formatPattern) {
+        Snapshot current = snapshot;
+        String formatted = current.formatted.get(formatPattern);
+        return formatted != null ? formatted : FormatterCache.of(formatPattern).format(current.dateTime);
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private static class Snapshot {
+        private final long millis;
+        private final Instant instant;
+        private final LocalDate date;
+        private final LocalDateTime dateTime;
+        private final Map<String, String> formatted;
+
+        private Snapshot(long millis, Instant instant, LocalDate date, LocalDateTime dateTime, Map<String, String> formatted) {
+            this.millis = millis;
+            this.instant = instant;
+            this.date = date;
+            this.dateTime = dateTime;
+            this.formatted = formatted;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package jugua.java8.datetime.master_class;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * DateTimeHacking
+ *
+ * Non mutating alternative to {@link DateTimeFunctions#transformCalendarToUTC} and
+ * {@link DateTimeFunctions#transformCalendarToNewTimeZone}. Those change the time zone of passed
+ * Calendar, which breaks everybody else sharing it, and call TimeZone.getTimeZone each time,
+ * which is synchronized and clones the zone. Here time zones are looked up once and only
+ * read afterwards, and results are new values rather than modified arguments.
+ *
+ * Note that Calendar itself is still not thread safe: reading time of a Calendar
+ * with pending field changes recomputes it, so shared Calendars should not be modified.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class CalendarProjections {
+
+    private static final ConcurrentMap<String, TimeZone> TIME_ZONES = new ConcurrentHashMap<>();
+
+    private CalendarProjections() {}
+
+    //Cached zones are never handed out, as TimeZone is mutable
+    private static TimeZone timeZone(String timeZone) {
+        TimeZone zone = TIME_ZONES.get(timeZone);
+        return zone != null ? zone : TIME_ZONES.computeIfAbsent(timeZone, TimeZone::getTimeZone);
+    }
+
+    public static int offsetMillis(long epochMillis, String timeZone) {
+        return timeZone(timeZone).getOffset(epochMillis);
+    }
+
+    //Wall clock time in given zone as if it was UTC epoch millis
+    public static long localMillis(long epochMillis, String timeZone) {
+        return epochMillis + timeZone(timeZone).getOffset(epochMillis);
+    }
+
+    public static long localMillis(Calendar calendar, String timeZone) {
+        return localMillis(calendar.getTimeInMillis(), timeZone);
+    }
+
+    public static Calendar toUTC(Calendar calendar) {
+        return toNewTimeZone(calendar, "UTC");
+    }
+
+    public static Calendar toNewTimeZone(Calendar calendar, String timeZone) {
+        Calendar projected = new GregorianCalendar((TimeZone) timeZone(timeZone).clone());
+        projected.setTimeInMillis(calendar.getTimeInMillis());
+        return projected;
+    }
+
+    public static int[] offsetsMillis(long[] epochMillis, String timeZone) {
+        TimeZone zone = timeZone(timeZone);
+        int[] offsets = new int[epochMillis.length];
+        for (int i = 0; i < epochMillis.length; i++) {
+            offsets[i] = zone.getOffset(epochMillis[i]);
+        }
+        return offsets;
+    }
+
+    public static long[] localMillis(long[] epochMillis, String timeZone) {
+        TimeZone zone = timeZone(timeZone);
+        long[] local = new long[epochMillis.length];
+        for (int i = 0; i < epochMillis.length; i++) {
+            local[i] = epochMillis[i] + zone.getOffset(epochMillis[i]);
+        }
+        return local;
+    }
+
+    public static long[] localMillis(Calendar[] calendars, String timeZone) {
+        TimeZone zone = timeZone(timeZone);
+        long[] local = new long[calendars.length];
+        for (int i = 0; i < calendars.length; i++) {
+            long epochMillis = calendars[i].getTimeInMillis();
+            local[i] = epochMillis + zone.getOffset(epochMillis);
+        }
+        return local;
+    }
+}
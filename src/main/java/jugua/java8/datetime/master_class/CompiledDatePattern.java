@@ -0,0 +1,320 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DateTimeHacking
+ *
+ * Pattern accepted by {@link DateTimeFunctions#stringToLocalDate} and
+ * {@link DateTimeFunctions#dateToOutputFormat} compiled into a flat list of fixed width
+ * fields and literals, parsed and printed by a single loop doing plain digit arithmetic
+ * instead of walking a chain of printer-parsers for every call.
+ *
+ * Supported letters are yyyy, MM, MMM, MMMM, dd, EEE, EEEE, HH, mm, ss and SSS, any other
+ * pattern is handled by generic formatter. Month and day of week names come from tables built
+ * once per locale and are parsed by a trie, so text patterns cost about as much as numeric ones.
+ * Patterns compiled for an explicit locale parse names case insensitively, and so does their
+ * generic formatter, while patterns compiled without locale use default one just like
+ * {@link DateTimeFunctions#stringToLocalDate}. Generic formatter also takes over any text fast path can't handle
+ * (out of range values, wrong width, unexpected characters), so both results and exceptions
+ * are exactly the same as DateTimeFormatter gives.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class CompiledDatePattern {
+
+    private enum Field { YEAR, MONTH, MONTH_TEXT, MONTH_NAME, DAY, DAY_OF_WEEK_TEXT, DAY_OF_WEEK_NAME, HOUR, MINUTE, SECOND, MILLI, LITERAL }
+
+    private final DateTimeFormatter formatter;
+    private final Field[] fields;
+    private final int[] widths;
+    private final char[] literals;
+    private final DateNames names;
+    private final boolean caseInsensitive;
+    private final boolean hasDate;
+    private final boolean hasTime;
+    private final boolean hasTimeFields;
+    private final int orderedDatePrefixLength;
+
+    private CompiledDatePattern(DateTimeFormatter formatter, DateNames names, boolean caseInsensitive,
+                                List<Field> fields, List<Integer> widths, StringBuilder literals) {
+        this.formatter = formatter;
+        this.fields = fields == null ? null : fields.toArray(new Field[0]);
+        this.widths = widths == null ? null : widths.stream().mapToInt(Integer::intValue).toArray();
+        this.literals = literals == null ? null : literals.toString().toCharArray();
+        this.names = names;
+        this.caseInsensitive = caseInsensitive;
+        this.hasDate = fields != null && fields.contains(Field.YEAR) && fields.contains(Field.DAY)
+                && (fields.contains(Field.MONTH) || fields.contains(Field.MONTH_TEXT) || fields.contains(Field.MONTH_NAME));
+        this.hasTime = fields != null && fields.contains(Field.HOUR) && fields.contains(Field.MINUTE);
+        this.hasTimeFields = fields != null && (fields.contains(Field.HOUR) || fields.contains(Field.MINUTE)
+                || fields.contains(Field.SECOND) || fields.contains(Field.MILLI));
+        //Asked on every LazyDate comparison, so worked out once
+        this.orderedDatePrefixLength = computeOrderedDatePrefixLength();
+    }
+
+    public static CompiledDatePattern compile(String formatPattern) {
+        return compile(formatPattern, FormatterCache.of(formatPattern), DateNames.of(Locale.getDefault(Locale.Category.FORMAT)), false);
+    }
+
+    //Pattern with names of given locale parsed case insensitively, better taken from FormatterCache.compiled
+    public static CompiledDatePattern compile(String formatPattern, Locale locale) {
+        return compile(formatPattern, FormatterCache.of(formatPattern, locale), DateNames.of(locale), true);
+    }
+
+    private static CompiledDatePattern compile(String formatPattern, DateTimeFormatter formatter, DateNames names, boolean caseInsensitive) {
+        List<Field> fields = new ArrayList<>();
+        List<Integer> widths = new ArrayList<>();
+        StringBuilder literals = new StringBuilder();
+        for (int i = 0; i < formatPattern.length(); ) {
+            char letter = formatPattern.charAt(i);
+            int count = 1;
+            while (i + count < formatPattern.length() && formatPattern.charAt(i + count) == letter) {
+                count++;
+            }
+            Field field = fieldOf(letter, count);
+            if (field == null) {
+                return new CompiledDatePattern(formatter, names, caseInsensitive, null, null, null);
+            }
+            if (field == Field.LITERAL) {
+                count = 1;
+                literals.append(letter);
+            } else {
+                literals.append(' ');
+            }
+            fields.add(field);
+            widths.add(field == Field.LITERAL ? 1 : count);
+            i += count;
+        }
+        return new CompiledDatePattern(formatter, names, caseInsensitive, fields, widths, literals);
+    }
+
+    private static Field fieldOf(char letter, int count) {
+        switch (letter) {
+            case 'y': return count == 4 ? Field.YEAR : null;
+            case 'M': return count == 2 ? Field.MONTH : count == 3 ? Field.MONTH_TEXT : count == 4 ? Field.MONTH_NAME : null;
+            case 'E': return count == 3 ? Field.DAY_OF_WEEK_TEXT : count == 4 ? Field.DAY_OF_WEEK_NAME : null;
+            case 'd': return count == 2 ? Field.DAY : null;
+            case 'H': return count == 2 ? Field.HOUR : null;
+            case 'm': return count == 2 ? Field.MINUTE : null;
+            case 's': return count == 2 ? Field.SECOND : null;
+            case 'S': return count == 3 ? Field.MILLI : null;
+            default:
+                boolean reserved = (letter >= 'a' && letter <= 'z') || (letter >= 'A' && letter <= 'Z')
+                        || letter == '\'' || letter == '[' || letter == ']' || letter == '{' || letter == '}' || letter == '#';
+                return reserved ? null : Field.LITERAL;
+        }
+    }
+
+    public boolean isSpecialized() {
+        return fields != null;
+    }
+
+    public DateTimeFormatter formatter() {
+        return formatter;
+    }
+
+    public LocalDate parseDate(CharSequence text) {
+        int[] values = hasDate ? parseFields(text) : null;
+        if (values == null) return LocalDate.parse(text, formatter);
+        return LocalDate.of(values[0], values[1], values[2]);
+    }
+
+    //Epoch day of parsed date without creating LocalDate
+    public long parseToEpochDay(CharSequence text) {
+        int[] values = hasDate ? parseFields(text) : null;
+        if (values == null) return LocalDate.parse(text, formatter).toEpochDay();
+        return EpochDays.of(values[0], values[1], values[2]);
+    }
+
+    public LocalDateTime parseDateTime(CharSequence text) {
+        int[] values = hasDate && hasTime ? parseFields(text) : null;
+        if (values == null) return LocalDateTime.parse(text, formatter);
+        return LocalDateTime.of(values[0], values[1], values[2], values[3], values[4], values[5], values[6] * 1000000);
+    }
+
+    //Local date/time as UTC epoch second without creating LocalDateTime
+    public long parseToEpochSecond(CharSequence text) {
+        int[] values = hasDate && hasTime ? parseFields(text) : null;
+        if (values == null) return LocalDateTime.parse(text, formatter).toEpochSecond(ZoneOffset.UTC);
+        return EpochDays.of(values[0], values[1], values[2]) * 86400 + values[3] * 3600 + values[4] * 60 + values[5];
+    }
+
+    public String format(LocalDate date) {
+        if (!isSpecialized() || hasTimeFields || date.getYear() < 1 || date.getYear() > 9999) return date.format(formatter);
+        return print(date.getYear(), date.getMonthValue(), date.getDayOfMonth(), 0, 0, 0, 0);
+    }
+
+    public String format(LocalDateTime dateTime) {
+        if (!isSpecialized() || dateTime.getYear() < 1 || dateTime.getYear() > 9999) return dateTime.format(formatter);
+        return print(dateTime.getYear(), dateTime.getMonthValue(), dateTime.getDayOfMonth(),
+                dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond(), dateTime.getNano() / 1000000);
+    }
+
+    //Length of text when all fields have fixed width, -1 otherwise
+    int textLength() {
+        if (!isSpecialized()) return -1;
+        int length = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (isText(fields[i])) return -1;
+            length += widths[i];
+        }
+        return length;
+    }
+
+    //Length of fixed width text prefix holding all date fields when they precede time fields, -1 otherwise
+    int datePrefixLength() {
+        if (textLength() < 0 || !hasDate) return -1;
+        int offset = 0;
+        int prefixLength = 0;
+        boolean timeSeen = false;
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (field == Field.YEAR || field == Field.MONTH || field == Field.DAY) {
+                if (timeSeen) return -1;
+                prefixLength = offset + widths[i];
+            } else if (field != Field.LITERAL) {
+                timeSeen = true;
+            }
+            offset += widths[i];
+        }
+        return prefixLength;
+    }
+
+    //Length of date prefix when it's fixed width and ordered year, month, day, so comparing
+    //prefixes of two texts char by char orders them by date; -1 otherwise
+    int orderedDatePrefixLength() {
+        return orderedDatePrefixLength;
+    }
+
+    private int computeOrderedDatePrefixLength() {
+        int prefixLength = datePrefixLength();
+        if (prefixLength < 0) return -1;
+        int lastSlot = -1;
+        for (int i = 0, offset = 0; offset < prefixLength; offset += widths[i], i++) {
+            if (fields[i] == Field.LITERAL) continue;
+            if (slotOf(fields[i]) <= lastSlot) return -1;
+            lastSlot = slotOf(fields[i]);
+        }
+        return prefixLength;
+    }
+
+    //Text offset of hours (H), minutes (m), seconds (s) or millis (S) in fixed width text, -1 if absent
+    int timeFieldOffset(char letter) {
+        if (textLength() < 0) return -1;
+        Field wanted = fieldOf(letter, letter == 'S' ? 3 : 2);
+        int offset = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == wanted) return offset;
+            offset += widths[i];
+        }
+        return -1;
+    }
+
+    //year, month, day, hour, minute, second, milli or null if text should go to generic formatter
+    private int[] parseFields(CharSequence text) {
+        //Extra slot keeps parsed day of week, 0 if pattern has none
+        int[] values = new int[8];
+        int position = 0;
+        int length = text.length();
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (field == Field.LITERAL) {
+                if (position >= length || text.charAt(position) != literals[i]) return null;
+                position++;
+                continue;
+            }
+            if (isText(field)) {
+                int index = trieOf(field).match(text, position);
+                if (index < 0) return null;
+                values[slotOf(field)] = index + 1;
+                position += namesOf(field)[index].length();
+                continue;
+            }
+            int width = widths[i];
+            if (position + width > length) return null;
+            int value = 0;
+            for (int end = position + width; position < end; position++) {
+                int digit = text.charAt(position) - '0';
+                if (digit < 0 || digit > 9) return null;
+                value = value * 10 + digit;
+            }
+            values[slotOf(field)] = value;
+        }
+        if (position != length) return null;
+        //Let generic formatter deal with invalid values and smart resolving of day of month
+        if (values[0] < 1 || values[1] < 1 || values[1] > 12 || values[2] < 1 || values[2] > EpochDays.lengthOfMonth(values[0], values[1])
+                || values[3] > 23 || values[4] > 59 || values[5] > 59) return null;
+        //And with day of week not matching the date, so exception is the same
+        if (values[7] != 0 && values[7] != EpochDays.dayOfWeek(EpochDays.of(values[0], values[1], values[2]))) return null;
+        return values;
+    }
+
+    private static boolean isText(Field field) {
+        return field == Field.MONTH_TEXT || field == Field.MONTH_NAME || field == Field.DAY_OF_WEEK_TEXT || field == Field.DAY_OF_WEEK_NAME;
+    }
+
+    private static int slotOf(Field field) {
+        switch (field) {
+            case YEAR: return 0;
+            case MONTH: case MONTH_TEXT: case MONTH_NAME: return 1;
+            case DAY: return 2;
+            case HOUR: return 3;
+            case MINUTE: return 4;
+            case SECOND: return 5;
+            case DAY_OF_WEEK_TEXT: case DAY_OF_WEEK_NAME: return 7;
+            default: return 6;
+        }
+    }
+
+    private String[] namesOf(Field field) {
+        switch (field) {
+            case MONTH_TEXT: return names.shortMonths;
+            case MONTH_NAME: return names.fullMonths;
+            case DAY_OF_WEEK_TEXT: return names.shortDays;
+            default: return names.fullDays;
+        }
+    }
+
+    private NameTrie trieOf(Field field) {
+        switch (field) {
+            case MONTH_TEXT: return caseInsensitive ? names.caseInsensitiveShortMonthTrie : names.shortMonthTrie;
+            case MONTH_NAME: return caseInsensitive ? names.caseInsensitiveFullMonthTrie : names.fullMonthTrie;
+            case DAY_OF_WEEK_TEXT: return caseInsensitive ? names.caseInsensitiveShortDayTrie : names.shortDayTrie;
+            default: return caseInsensitive ? names.caseInsensitiveFullDayTrie : names.fullDayTrie;
+        }
+    }
+
+    private String print(int year, int month, int day, int hour, int minute, int second, int milli) {
+        StringBuilder out = new StringBuilder(fields.length * 2);
+        for (int i = 0; i < fields.length; i++) {
+            switch (fields[i]) {
+                case LITERAL: out.append(literals[i]); break;
+                case YEAR: pad(out, year, 4); break;
+                case MONTH: pad(out, month, 2); break;
+                case MONTH_TEXT: case MONTH_NAME: out.append(namesOf(fields[i])[month - 1]); break;
+                case DAY: pad(out, day, 2); break;
+                case DAY_OF_WEEK_TEXT: case DAY_OF_WEEK_NAME:
+                    out.append(namesOf(fields[i])[EpochDays.dayOfWeek(EpochDays.of(year, month, day)) - 1]); break;
+                case HOUR: pad(out, hour, 2); break;
+                case MINUTE: pad(out, minute, 2); break;
+                case SECOND: pad(out, second, 2); break;
+                default: pad(out, milli, 3);
+            }
+        }
+        return out.toString();
+    }
+
+    private static void pad(StringBuilder out, int value, int width) {
+        for (int limit = width == 4 ? 1000 : width == 3 ? 100 : 10; limit > 1 && value < limit; limit /= 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+}
@@ -0,0 +1,105 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.Duration;
+import java.time.Period;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * DateTimeHacking
+ *
+ * Differences between dates and date/times beyond {@link DateTimeFunctions#daysDiff},
+ * computed on primitive epoch days and epoch seconds without creating {@link Period} or
+ * {@link Duration} objects:
+ * - calendar periods as total months plus remaining days, same as Period.between gives
+ *   (and unlike Period.between(...).getDays() alone, which ignores months and years);
+ * - whole months and weeks, same as {@link ChronoUnit#between};
+ * - ISO weeks, i.e. number of Mondays passed;
+ * - exact seconds and hours between wall clock times of a zone, counting DST shifts.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class DateDiffs {
+
+    private DateDiffs() {}
+
+    //Period.between(from, to).toTotalMonths()
+    public static long periodMonths(long fromEpochDay, long toEpochDay) {
+        long fromMonth = MonthArithmetic.monthIndexOf(fromEpochDay);
+        long toMonth = MonthArithmetic.monthIndexOf(toEpochDay);
+        long totalMonths = toMonth - fromMonth;
+        long days = dayOfMonth(toEpochDay, toMonth) - dayOfMonth(fromEpochDay, fromMonth);
+        if (totalMonths > 0 && days < 0) return totalMonths - 1;
+        if (totalMonths < 0 && days > 0) return totalMonths + 1;
+        return totalMonths;
+    }
+
+    //Period.between(from, to).getDays()
+    public static int periodDays(long fromEpochDay, long toEpochDay) {
+        long fromMonth = MonthArithmetic.monthIndexOf(fromEpochDay);
+        long toMonth = MonthArithmetic.monthIndexOf(toEpochDay);
+        long totalMonths = toMonth - fromMonth;
+        int days = dayOfMonth(toEpochDay, toMonth) - dayOfMonth(fromEpochDay, fromMonth);
+        if (totalMonths > 0 && days < 0) {
+            return (int) (toEpochDay - MonthArithmetic.plusMonths(fromEpochDay, totalMonths - 1, MonthArithmetic.EndOfMonth.CLAMP));
+        }
+        if (totalMonths < 0 && days > 0) {
+            return days - MonthArithmetic.lengthOfMonth(toMonth);
+        }
+        return days;
+    }
+
+    //Periods of row pairs as total months and remaining days
+    public static void periods(long[] fromEpochDays, long[] toEpochDays, long[] totalMonths, int[] days) {
+        for (int i = 0; i < fromEpochDays.length; i++) {
+            totalMonths[i] = periodMonths(fromEpochDays[i], toEpochDays[i]);
+            days[i] = periodDays(fromEpochDays[i], toEpochDays[i]);
+        }
+    }
+
+    //ChronoUnit.MONTHS.between(from, to)
+    public static long monthsBetween(long fromEpochDay, long toEpochDay) {
+        long fromMonth = MonthArithmetic.monthIndexOf(fromEpochDay);
+        long toMonth = MonthArithmetic.monthIndexOf(toEpochDay);
+        long from = fromMonth * 32 + dayOfMonth(fromEpochDay, fromMonth);
+        long to = toMonth * 32 + dayOfMonth(toEpochDay, toMonth);
+        return (to - from) / 32;
+    }
+
+    //ChronoUnit.WEEKS.between(from, to)
+    public static long weeksBetween(long fromEpochDay, long toEpochDay) {
+        return (toEpochDay - fromEpochDay) / 7;
+    }
+
+    //Number of Mondays in (from, to], negative if to is before from
+    public static long isoWeeksBetween(long fromEpochDay, long toEpochDay) {
+        //1970-01-05 was Monday
+        return Math.floorDiv(toEpochDay - 4, 7L) - Math.floorDiv(fromEpochDay - 4, 7L);
+    }
+
+    public static void weeksBetween(long[] fromEpochDays, long[] toEpochDays, long[] weeks) {
+        for (int i = 0; i < fromEpochDays.length; i++) {
+            weeks[i] = (toEpochDays[i] - fromEpochDays[i]) / 7;
+        }
+    }
+
+    //Elapsed seconds between wall clock times (UTC epoch seconds of LocalDateTime) in a zone,
+    //Duration.between(ZonedDateTime.of(from, zone), ZonedDateTime.of(to, zone)).getSeconds()
+    public static long secondsBetween(long fromLocalSecond, long toLocalSecond, ZoneOffsetTable zone) {
+        return zone.toEpochSecond(toLocalSecond) - zone.toEpochSecond(fromLocalSecond);
+    }
+
+    //Same as Duration.toHours() of the duration above
+    public static long hoursBetween(long fromLocalSecond, long toLocalSecond, ZoneOffsetTable zone) {
+        return secondsBetween(fromLocalSecond, toLocalSecond, zone) / 3600;
+    }
+
+    public static void hoursBetween(long[] fromLocalSeconds, long[] toLocalSeconds, ZoneOffsetTable zone, long[] hours) {
+        for (int i = 0; i < fromLocalSeconds.length; i++) {
+            hours[i] = hoursBetween(fromLocalSeconds[i], toLocalSeconds[i], zone);
+        }
+    }
+
+    private static int dayOfMonth(long epochDay, long monthIndex) {
+        return (int) (epochDay - MonthArithmetic.firstDayOfMonth(monthIndex)) + 1;
+    }
+}
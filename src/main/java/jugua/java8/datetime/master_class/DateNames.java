@@ -0,0 +1,72 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.DayOfWeek;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+
+/**
+ * DateTimeHacking
+ *
+ * Month and day of week names of a locale, short (MMM, EEE) and full (MMMM, EEEE) forms,
+ * looked up in locale data once per locale, together with tries to parse them back.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+final class DateNames {
+
+    private static final ConcurrentMap<Locale, DateNames> NAMES = new ConcurrentHashMap<>();
+
+    final String[] shortMonths;
+    final String[] fullMonths;
+    final String[] shortDays;
+    final String[] fullDays;
+    final NameTrie shortMonthTrie;
+    final NameTrie fullMonthTrie;
+    final NameTrie shortDayTrie;
+    final NameTrie fullDayTrie;
+    final NameTrie caseInsensitiveShortMonthTrie;
+    final NameTrie caseInsensitiveFullMonthTrie;
+    final NameTrie caseInsensitiveShortDayTrie;
+    final NameTrie caseInsensitiveFullDayTrie;
+
+    private DateNames(Locale locale) {
+        this.shortMonths = monthNames(ofPattern("MMM", locale));
+        this.fullMonths = monthNames(ofPattern("MMMM", locale));
+        this.shortDays = dayNames(ofPattern("EEE", locale));
+        this.fullDays = dayNames(ofPattern("EEEE", locale));
+        this.shortMonthTrie = new NameTrie(shortMonths, false);
+        this.fullMonthTrie = new NameTrie(fullMonths, false);
+        this.shortDayTrie = new NameTrie(shortDays, false);
+        this.fullDayTrie = new NameTrie(fullDays, false);
+        this.caseInsensitiveShortMonthTrie = new NameTrie(shortMonths, true);
+        this.caseInsensitiveFullMonthTrie = new NameTrie(fullMonths, true);
+        this.caseInsensitiveShortDayTrie = new NameTrie(shortDays, true);
+        this.caseInsensitiveFullDayTrie = new NameTrie(fullDays, true);
+    }
+
+    static DateNames of(Locale locale) {
+        DateNames names = NAMES.get(locale);
+        return names != null ? names : NAMES.computeIfAbsent(locale, DateNames::new);
+    }
+
+    private static String[] monthNames(DateTimeFormatter formatter) {
+        String[] names = new String[12];
+        for (Month month : Month.values()) {
+            names[month.ordinal()] = formatter.format(month);
+        }
+        return names;
+    }
+
+    private static String[] dayNames(DateTimeFormatter formatter) {
+        String[] names = new String[7];
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            names[dayOfWeek.ordinal()] = formatter.format(dayOfWeek);
+        }
+        return names;
+    }
+}
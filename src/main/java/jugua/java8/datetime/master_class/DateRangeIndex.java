@@ -0,0 +1,207 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.daysDiff;
+
+/**
+ * DateTimeHacking
+ *
+ * Index over date ranges answering "which ranges contain this date" without comparing
+ * a date with every range. Ranges are kept as primitive epoch day bounds sorted by start,
+ * with an implicit interval tree on top: every middle element of a sub-array remembers
+ * the latest end within that sub-array, so whole sub-arrays ending before a date are skipped.
+ *
+ * Ranges are identified by position they were added in. Both bounds are inclusive.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateRangeIndex {
+
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] ids;
+    private final int[] positions;
+    private final long[] maxEnds;
+
+    private DateRangeIndex(long[] starts, long[] ends, int[] ids) {
+        this.starts = starts;
+        this.ends = ends;
+        this.ids = ids;
+        this.positions = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            positions[ids[i]] = i;
+        }
+        this.maxEnds = new long[starts.length];
+        buildMaxEnds(0, starts.length);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    //Bulk build from ranges already sorted by start, no sorting or copying
+    public static DateRangeIndex ofSorted(long[] startEpochDays, long[] endEpochDays) {
+        if (startEpochDays.length != endEpochDays.length) throw new UnsupportedOperationException("Every range should have start and end");
+        int[] ids = new int[startEpochDays.length];
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0 && startEpochDays[i] < startEpochDays[i - 1]) throw new UnsupportedOperationException("Ranges should be sorted by start");
+            if (endEpochDays[i] < startEpochDays[i]) throw new UnsupportedOperationException("Range should not end before it starts");
+            ids[i] = i;
+        }
+        return new DateRangeIndex(startEpochDays, endEpochDays, ids);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public LocalDate startOf(int id) {
+        return LocalDate.ofEpochDay(starts[positionOf(id)]);
+    }
+
+    public LocalDate endOf(int id) {
+        return LocalDate.ofEpochDay(ends[positionOf(id)]);
+    }
+
+    //Stabbing query
+    public int[] containing(LocalDate date) {
+        return overlapping(date, date);
+    }
+
+    public int[] overlapping(LocalDate from, LocalDate to) {
+        IdCollector collector = new IdCollector();
+        visitOverlapping(0, starts.length, from.toEpochDay(), to.toEpochDay(), collector);
+        return collector.toArray();
+    }
+
+    //Ranges lying completely within [from, to]
+    public int[] within(LocalDate from, LocalDate to) {
+        long fromEpochDay = from.toEpochDay();
+        long toEpochDay = to.toEpochDay();
+        IdCollector collector = new IdCollector();
+        for (int i = SortedDates.lowerBound(starts, fromEpochDay); i < starts.length && starts[i] <= toEpochDay; i++) {
+            if (ends[i] <= toEpochDay) {
+                collector.accept(ids[i]);
+            }
+        }
+        return collector.toArray();
+    }
+
+    //Batch stabbing query over a date column: number of ranges containing each date
+    public int[] countContaining(long[] epochDays) {
+        int[] counts = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            counts[i] = countContaining(0, starts.length, epochDays[i]);
+        }
+        return counts;
+    }
+
+    //Batch stabbing query over a date column: range with the earliest start containing each date or -1
+    public int[] firstContaining(long[] epochDays) {
+        int[] firstIds = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            int position = firstOverlapping(0, starts.length, epochDays[i]);
+            firstIds[i] = position < 0 ? -1 : ids[position];
+        }
+        return firstIds;
+    }
+
+    private long buildMaxEnds(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        maxEnds[mid] = Math.max(ends[mid], Math.max(buildMaxEnds(lo, mid), buildMaxEnds(mid + 1, hi)));
+        return maxEnds[mid];
+    }
+
+    private void visitOverlapping(int lo, int hi, long from, long to, IntConsumer consumer) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < from) return;
+        visitOverlapping(lo, mid, from, to, consumer);
+        if (starts[mid] > to) return;
+        if (ends[mid] >= from) consumer.accept(ids[mid]);
+        visitOverlapping(mid + 1, hi, from, to, consumer);
+    }
+
+    private int countContaining(int lo, int hi, long date) {
+        if (lo >= hi) return 0;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < date) return 0;
+        int count = countContaining(lo, mid, date);
+        if (starts[mid] > date) return count;
+        if (ends[mid] >= date) count++;
+        return count + countContaining(mid + 1, hi, date);
+    }
+
+    private int firstOverlapping(int lo, int hi, long date) {
+        if (lo >= hi) return -1;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnds[mid] < date) return -1;
+        int left = firstOverlapping(lo, mid, date);
+        if (left >= 0) return left;
+        if (starts[mid] > date) return -1;
+        if (ends[mid] >= date) return mid;
+        return firstOverlapping(mid + 1, hi, date);
+    }
+
+    private int positionOf(int id) {
+        if (id < 0 || id >= positions.length) throw new UnsupportedOperationException("Unknown range id " + id);
+        return positions[id];
+    }
+
+    public static class Builder {
+        private long[] starts = new long[16];
+        private long[] ends = new long[16];
+        private int size;
+
+        public Builder add(LocalDate from, LocalDate to) {
+            if (daysDiff(from, to) < 0) throw new UnsupportedOperationException("Range should not end before it starts");
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = from.toEpochDay();
+            ends[size] = to.toEpochDay();
+            size++;
+            return this;
+        }
+
+        public DateRangeIndex build() {
+            //Ranges are sorted once by start, ids keep order they were added in
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+            long[] sortedStarts = new long[size];
+            long[] sortedEnds = new long[size];
+            int[] ids = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+                ids[i] = order[i];
+            }
+            return new DateRangeIndex(sortedStarts, sortedEnds, ids);
+        }
+    }
+
+    private static class IdCollector implements IntConsumer {
+        private int[] ids = new int[8];
+        private int size;
+
+        @Override
+        public void accept(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+
+/**
+ * DateTimeHacking
+ *
+ * Bulk versions of {@link DateTimeFunctions#setTimeToDate} and {@link DateTimeFunctions#truncateDateWithTimeToDateOnly}
+ * for date/time columns packed into longs as local epoch seconds, i.e. epoch day * 86400 + second of day,
+ * the number LocalDateTime.toEpochSecond(ZoneOffset.UTC) gives. Dates and times are combined,
+ * truncated and split back by plain arithmetic, and time text is parsed once per batch
+ * instead of once per row.
+ *
+ * Precision is one second, so fractions of second of parsed times are dropped.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class DateTimeColumns {
+
+    private static final long SECONDS_PER_DAY = SecondsOfDay.SECONDS_PER_DAY;
+
+    private DateTimeColumns() {}
+
+    public static long[] of(LocalDateTime[] dateTimes) {
+        long[] epochSeconds = new long[dateTimes.length];
+        for (int i = 0; i < dateTimes.length; i++) {
+            epochSeconds[i] = dateTimes[i].toEpochSecond(ZoneOffset.UTC);
+        }
+        return epochSeconds;
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public static long[] combine(long[] epochDays, int[] secondsOfDay) {
+        long[] epochSeconds = new long[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochSeconds[i] = epochDays[i] * SECONDS_PER_DAY + secondsOfDay[i];
+        }
+        return epochSeconds;
+    }
+
+    //Same time set to every date, what setTimeToDate(date, time, timeFormatter) does for one date
+    public static long[] atTime(long[] epochDays, String time, String timePattern) {
+        int secondOfDay = LocalTime.parse(time, FormatterCache.of(timePattern)).toSecondOfDay();
+        long[] epochSeconds = new long[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochSeconds[i] = epochDays[i] * SECONDS_PER_DAY + secondOfDay;
+        }
+        return epochSeconds;
+    }
+
+    //Moves every date/time to given time of its own day in place
+    public static void setTime(long[] epochSeconds, String time, String timePattern) {
+        int secondOfDay = LocalTime.parse(time, FormatterCache.of(timePattern)).toSecondOfDay();
+        for (int i = 0; i < epochSeconds.length; i++) {
+            epochSeconds[i] = Math.floorDiv(epochSeconds[i], SECONDS_PER_DAY) * SECONDS_PER_DAY + secondOfDay;
+        }
+    }
+
+    //Same as LocalDateTime.truncatedTo(unit) for SECONDS, MINUTES, HOURS and DAYS, in place
+    public static void truncate(long[] epochSeconds, ChronoUnit unit) {
+        long unitSeconds = secondsOf(unit);
+        for (int i = 0; i < epochSeconds.length; i++) {
+            epochSeconds[i] = Math.floorDiv(epochSeconds[i], unitSeconds) * unitSeconds;
+        }
+    }
+
+    private static long secondsOf(ChronoUnit unit) {
+        switch (unit) {
+            case SECONDS: return 1;
+            case MINUTES: return 60;
+            case HOURS: return 3600;
+            case DAYS: return SECONDS_PER_DAY;
+            default: throw new UnsupportedTemporalTypeException("Unit is not supported: " + unit);
+        }
+    }
+
+    //Dates of date/times, what truncateDateWithTimeToDateOnly gives for every row
+    public static long[] epochDays(long[] epochSeconds) {
+        long[] epochDays = new long[epochSeconds.length];
+        split(epochSeconds, epochDays, null);
+        return epochDays;
+    }
+
+    public static int[] secondsOfDay(long[] epochSeconds) {
+        int[] secondsOfDay = new int[epochSeconds.length];
+        split(epochSeconds, null, secondsOfDay);
+        return secondsOfDay;
+    }
+
+    //Splits date/times into date and time columns, either of them may be null if not needed
+    public static void split(long[] epochSeconds, long[] epochDays, int[] secondsOfDay) {
+        for (int i = 0; i < epochSeconds.length; i++) {
+            long epochDay = Math.floorDiv(epochSeconds[i], SECONDS_PER_DAY);
+            if (epochDays != null) epochDays[i] = epochDay;
+            if (secondsOfDay != null) secondsOfDay[i] = (int) (epochSeconds[i] - epochDay * SECONDS_PER_DAY);
+        }
+    }
+}
@@ -12,10 +12,10 @@ import java.time.temporal.TemporalAdjusters;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.Locale;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
-import static java.time.format.DateTimeFormatter.ofPattern;
 import static java.util.Calendar.*;
 
 /**
@@ -42,19 +42,51 @@ public class DateTimeFunctions {
         return LocalDate.of(year, month, day);
     }
 
+    //Pass CachedClock on hot paths and FakeClock in tests instead of calling now()
+    @PriorJava8
+    public static Date currentDate(Clock clock) {
+        return new Date(clock.millis());
+    }
+
+    @Java8
+    public static LocalDate currentLocalDate(Clock clock) {
+        return clock instanceof CachedClock ? ((CachedClock) clock).today() : LocalDate.now(clock);
+    }
+
+    @Java8
+    public static LocalDateTime currentLocalDateTime(Clock clock) {
+        return clock instanceof CachedClock ? ((CachedClock) clock).now() : LocalDateTime.now(clock);
+    }
+
+    @Java8
+    public static ZonedDateTime currentZonedDateTime(Clock clock) {
+        return ZonedDateTime.now(clock);
+    }
+
     @PriorJava8
     public static Date stringToDate(String date, String formatPattern) throws ParseException {
         return new SimpleDateFormat(formatPattern).parse(date);
     }
 
+    @PriorJava8
+    public static Date stringToDate(String date, String formatPattern, Locale locale) throws ParseException {
+        return new SimpleDateFormat(formatPattern, locale).parse(date);
+    }
+
     @Java8
     public static LocalDate stringToLocalDate(String date, String formatPattern) {
-        return LocalDate.parse(date, ofPattern(formatPattern));
+        return LocalDate.parse(date, FormatterCache.of(formatPattern));
+    }
+
+    //Month and day names of given locale, parsed case insensitively
+    @Java8
+    public static LocalDate stringToLocalDate(String date, String formatPattern, Locale locale) {
+        return FormatterCache.compiled(formatPattern, locale).parseDate(date);
     }
 
     @Java8
     public static LocalDateTime stringToDateWithTime(String dateWithTime, String formatPattern) {
-        return LocalDateTime.parse(dateWithTime, ofPattern(formatPattern));
+        return LocalDateTime.parse(dateWithTime, FormatterCache.of(formatPattern));
     }
 
     @PriorJava8
@@ -72,9 +104,19 @@ public class DateTimeFunctions {
         return new SimpleDateFormat(formatPattern).format(date);
     }
 
+    @PriorJava8
+    public static String dateToOutputFormat(Date date, String formatPattern, Locale locale) {
+        return new SimpleDateFormat(formatPattern, locale).format(date);
+    }
+
     @Java8
     public static String dateToOutputFormat(LocalDate date, String formatPattern) {
-        return date.format(ofPattern(formatPattern));
+        return date.format(FormatterCache.of(formatPattern));
+    }
+
+    @Java8
+    public static String dateToOutputFormat(LocalDate date, String formatPattern, Locale locale) {
+        return FormatterCache.compiled(formatPattern, locale).format(date);
     }
 
     @PriorJava8
@@ -254,7 +296,7 @@ public class DateTimeFunctions {
     @Java8
     public static ZonedDateTime aNewZonedDateTime(String dateTime, String dateTimeFormat, ZoneId timeZone) throws ParseException {
         //return ZonedDateTime.parse(dateTime, ofPattern(dateTimeFormat).withZone(timeZone));
-        return ZonedDateTime.of(LocalDateTime.parse(dateTime, ofPattern(dateTimeFormat)), timeZone);
+        return ZonedDateTime.of(LocalDateTime.parse(dateTime, FormatterCache.of(dateTimeFormat)), timeZone);
     }
 
     @PriorJava8
@@ -0,0 +1,142 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Streaming stage which applies date/time functions to a flow of records.
+ * Records are grouped into micro-batches, batches are transformed in parallel
+ * and downstream receives results in the same order records were pushed.
+ * Number of batches in flight is bounded, so a fast producer gets blocked in
+ * {@link #onNext(Object)} until downstream catches up (backpressure).
+ *
+ * java.util.concurrent.Flow appeared only in Java 9, so the stage exposes
+ * the same onNext/onComplete contract on top of plain Java 8 executors.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateTimeStage<T, R> implements AutoCloseable {
+
+    public interface RecordFunction<T, R> {
+        R apply(T record) throws Exception;
+
+        default <V> RecordFunction<T, V> andThen(RecordFunction<? super R, ? extends V> next) {
+            return record -> next.apply(apply(record));
+        }
+    }
+
+    public static RecordFunction<String, LocalDateTime> parsing(String formatPattern) {
+        return record -> stringToDateWithTime(record, formatPattern);
+    }
+
+    public static RecordFunction<String, ZonedDateTime> parsingInZone(String formatPattern, ZoneId timeZone) {
+        return record -> aNewZonedDateTime(record, formatPattern, timeZone);
+    }
+
+    public static RecordFunction<ZonedDateTime, ZonedDateTime> convertingToTimeZone(String timeZone) {
+        return record -> transformToNewTimeZone(record, timeZone);
+    }
+
+    public static RecordFunction<LocalDate, LocalDate> addingWorkingDays(int workingDays) {
+        return record -> adjustWorkingDays(record, workingDays);
+    }
+
+    private final RecordFunction<? super T, ? extends R> function;
+    private final Consumer<? super R> downstream;
+    private final int batchSize;
+    private final int maxBatchesInFlight;
+    private final ExecutorService executor;
+    private final Deque<Future<List<R>>> inFlight = new ArrayDeque<>();
+    private List<T> batch;
+
+    public DateTimeStage(RecordFunction<? super T, ? extends R> function, Consumer<? super R> downstream,
+                         int batchSize, int parallelism) {
+        if (batchSize <= 0) throw new UnsupportedOperationException("Batch size should be positive number");
+        if (parallelism <= 0) throw new UnsupportedOperationException("Parallelism should be positive number");
+        this.function = function;
+        this.downstream = downstream;
+        this.batchSize = batchSize;
+        this.maxBatchesInFlight = parallelism * 2;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    //Blocks caller while too many batches are in flight
+    public void onNext(T record) {
+        batch.add(record);
+        if (batch.size() == batchSize) {
+            submitBatch();
+        }
+    }
+
+    public void onComplete() {
+        if (!batch.isEmpty()) {
+            submitBatch();
+        }
+        while (!inFlight.isEmpty()) {
+            emit(inFlight.poll());
+        }
+    }
+
+    public void publish(Iterable<? extends T> records) {
+        for (T record : records) {
+            onNext(record);
+        }
+        onComplete();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void submitBatch() {
+        List<T> records = batch;
+        batch = new ArrayList<>(batchSize);
+        //Oldest batch is awaited first, so no more than maxBatchesInFlight are ever submitted
+        while (inFlight.size() >= maxBatchesInFlight) {
+            emit(inFlight.poll());
+        }
+        inFlight.add(executor.submit(() -> transform(records)));
+        while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+            emit(inFlight.poll());
+        }
+    }
+
+    private List<R> transform(List<T> records) throws Exception {
+        List<R> results = new ArrayList<>(records.size());
+        for (T record : records) {
+            results.add(function.apply(record));
+        }
+        return results;
+    }
+
+    private void emit(Future<List<R>> batchResult) {
+        List<R> results;
+        try {
+            results = batchResult.get();
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        results.forEach(downstream);
+    }
+}
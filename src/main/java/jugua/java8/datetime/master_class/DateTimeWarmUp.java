@@ -0,0 +1,110 @@
+package jugua.java8.datetime.master_class;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Warms date/time machinery up before the first real request comes. Otherwise the first
+ * calls pay for lazy loading of formatter classes, tzdb zone rules and running hot
+ * methods in interpreter.
+ *
+ * Also serves as a training run for class data sharing archive, which keeps classes
+ * loaded here pre-parsed across JVM starts (JDK 13+):
+ *
+ *   java -XX:ArchiveClassesAtExit=datetime.jsa -cp classes jugua.java8.datetime.master_class.DateTimeWarmUp
+ *   java -XX:SharedArchiveFile=datetime.jsa -cp classes jugua.java8.datetime.master_class.DateTimeWarmUp --measure
+ *
+ * With --measure it starts two JVMs with the same options, a cold one and one warmed up
+ * first, and each prints how long the first stringToDateWithTime call on request path took
+ * and when it was done since JVM start. These are the numbers to compare with and without
+ * the archive and warm up.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateTimeWarmUp {
+
+    public static final Collection<String> DEFAULT_PATTERNS = Arrays.asList("dd/MM/yyyy HH:mm:ss", "dd/MM/yyyy HH:mm", "dd MMM yyyy", "HH:mm");
+    public static final Collection<String> DEFAULT_ZONES = Arrays.asList("UTC", "Europe/London", "Europe/Kiev");
+
+    private static final int DEFAULT_ITERATIONS = 20000;
+
+    public static void warmUp() throws ParseException {
+        warmUp(DEFAULT_PATTERNS, DEFAULT_ZONES, DEFAULT_ITERATIONS);
+    }
+
+    //Preloads formatters and zone rules, then runs hot methods enough times to get them compiled
+    public static void warmUp(Collection<String> patterns, Collection<String> zones, int iterations) throws ParseException {
+        LocalDateTime sample = stringToDateWithTime("10/06/1987 13:30:15", "dd/MM/yyyy HH:mm:ss");
+        for (String pattern : patterns) {
+            DateTimeFormatter formatter = FormatterCache.of(pattern);
+            String text = formatter.format(sample);
+            for (int i = 0; i < iterations; i++) {
+                formatter.parse(text);
+            }
+        }
+        for (String zoneId : zones) {
+            ZoneId zone = ZoneId.of(zoneId);
+            zone.getRules().getTransitions();
+            ZonedDateTimeParser parser = new ZonedDateTimeParser("dd/MM/yyyy HH:mm:ss", zone);
+            for (int i = 0; i < iterations; i++) {
+                ZonedDateTime dateTime = parser.of(sample.plusHours(i));
+                transformToUTC(dateTime);
+                transformToNewTimeZone(dateTime, zoneId);
+            }
+        }
+        LocalDate date = sample.toLocalDate();
+        for (int i = 0; i < iterations; i++) {
+            adjustWorkingDays(addDaysToGivenLocalDate(date, i % 365), 1 + i % 20);
+            adjustDateToLastDayOfAMonth(truncateDateWithTimeToDateOnly(sample.plusDays(i % 365)));
+            daysDiff(date, addMonthsToGivenLocalDate(date, i % 120));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--measure")) {
+            measureInNewJvm(false);
+            measureInNewJvm(true);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--first-parse")) {
+            boolean warm = args.length > 1 && args[1].equals("--warm");
+            if (warm) {
+                warmUp();
+            }
+            long start = System.nanoTime();
+            LocalDateTime parsed = stringToDateWithTime("10/06/1987 13:30:15", "dd/MM/yyyy HH:mm:ss");
+            long micros = (System.nanoTime() - start) / 1000;
+            long millisSinceStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+            System.out.println((warm ? "Warmed" : "Cold") + ": first parse of " + parsed + " took " + micros + "us, done "
+                    + millisSinceStart + "ms after JVM start");
+            return;
+        }
+        warmUp();
+    }
+
+    //Runs --first-parse in a fresh JVM with the same options (e.g. shared archive) and class path
+    private static void measureInNewJvm(boolean warm) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), DateTimeWarmUp.class.getName(), "--first-parse"));
+        if (warm) {
+            command.add("--warm");
+        }
+        new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+}
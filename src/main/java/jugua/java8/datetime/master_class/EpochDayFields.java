@@ -0,0 +1,133 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.DayOfWeek;
+
+/**
+ * DateTimeHacking
+ *
+ * Bulk versions of {@link EpochDays} field functions for whole epoch day columns.
+ * Year, month and day of dates in 1900-2099 come out of a table with one packed int per
+ * day (under 300KB), other dates share era/day of year arithmetic in one pass instead
+ * of three separate {@link EpochDays} calls.
+ *
+ * Output arrays should be at least as long as input one. Any output of
+ * {@link #decode} may be null if that field is not needed.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class EpochDayFields {
+
+    private static final int TABLE_FROM = (int) EpochDays.of(1900, 1, 1);
+    private static final int TABLE_TO = (int) EpochDays.of(2100, 1, 1);
+    //year << 9 | month << 5 | day
+    private static final int[] TABLE = table();
+
+    private EpochDayFields() {}
+
+    private static int[] table() {
+        int[] table = new int[TABLE_TO - TABLE_FROM];
+        int i = 0;
+        for (int year = 1900; year < 2100; year++) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 1, length = EpochDays.lengthOfMonth(year, month); day <= length; day++) {
+                    table[i++] = year << 9 | month << 5 | day;
+                }
+            }
+        }
+        return table;
+    }
+
+    public static void decode(long[] epochDays, int[] years, int[] months, int[] days) {
+        for (int i = 0; i < epochDays.length; i++) {
+            decode(epochDays[i], i, years, months, days);
+        }
+    }
+
+    public static void decode(int[] epochDays, int[] years, int[] months, int[] days) {
+        for (int i = 0; i < epochDays.length; i++) {
+            decode(epochDays[i], i, years, months, days);
+        }
+    }
+
+    //Civil from days algorithm steps of EpochDays, done once for all three fields
+    private static void decode(long epochDay, int i, int[] years, int[] months, int[] days) {
+        if (epochDay >= TABLE_FROM && epochDay < TABLE_TO) {
+            int packed = TABLE[(int) epochDay - TABLE_FROM];
+            if (years != null) years[i] = packed >>> 9;
+            if (months != null) months[i] = (packed >>> 5) & 15;
+            if (days != null) days[i] = packed & 31;
+            return;
+        }
+        long z = epochDay + EpochDays.DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, EpochDays.DAYS_PER_ERA);
+        int dayOfEra = (int) (z - era * EpochDays.DAYS_PER_ERA);
+        int yearOfEra = EpochDays.yearOfEra(dayOfEra);
+        int dayOfYear = EpochDays.dayOfYear(dayOfEra, yearOfEra);
+        int shiftedMonth = EpochDays.shiftedMonthOf(dayOfYear);
+        int january = shiftedMonth >= 10 ? 1 : 0;
+        if (years != null) years[i] = (int) (era * 400) + yearOfEra + january;
+        if (months != null) months[i] = shiftedMonth + 3 - 12 * january;
+        if (days != null) days[i] = EpochDays.dayOfMonthOf(dayOfYear, shiftedMonth);
+    }
+
+    //year << 9 | month << 5 | day for dates in 1900-2099, -1 for others
+    static int packedFieldsOf(long epochDay) {
+        return epochDay >= TABLE_FROM && epochDay < TABLE_TO ? TABLE[(int) epochDay - TABLE_FROM] : -1;
+    }
+
+    public static int[] years(long[] epochDays) {
+        int[] years = new int[epochDays.length];
+        decode(epochDays, years, null, null);
+        return years;
+    }
+
+    public static int[] months(long[] epochDays) {
+        int[] months = new int[epochDays.length];
+        decode(epochDays, null, months, null);
+        return months;
+    }
+
+    public static int[] days(long[] epochDays) {
+        int[] days = new int[epochDays.length];
+        decode(epochDays, null, null, days);
+        return days;
+    }
+
+    //ISO days of week: 1 - Monday ... 7 - Sunday
+    public static void daysOfWeek(long[] epochDays, int[] daysOfWeek) {
+        for (int i = 0; i < epochDays.length; i++) {
+            long shifted = (epochDays[i] + 3) % 7;
+            daysOfWeek[i] = (int) (shifted < 0 ? shifted + 8 : shifted + 1);
+        }
+    }
+
+    public static void daysOfWeek(int[] epochDays, int[] daysOfWeek) {
+        for (int i = 0; i < epochDays.length; i++) {
+            long shifted = (epochDays[i] + 3L) % 7;
+            daysOfWeek[i] = (int) (shifted < 0 ? shifted + 8 : shifted + 1);
+        }
+    }
+
+    public static void workingDays(long[] epochDays, boolean[] workingDays) {
+        for (int i = 0; i < epochDays.length; i++) {
+            long shifted = (epochDays[i] + 3) % 7;
+            workingDays[i] = (shifted < 0 ? shifted + 7 : shifted) < DayOfWeek.SATURDAY.ordinal();
+        }
+    }
+
+    public static void workingDays(int[] epochDays, boolean[] workingDays) {
+        for (int i = 0; i < epochDays.length; i++) {
+            long shifted = (epochDays[i] + 3L) % 7;
+            workingDays[i] = (shifted < 0 ? shifted + 7 : shifted) < DayOfWeek.SATURDAY.ordinal();
+        }
+    }
+
+    public static int countWorkingDays(long[] epochDays) {
+        int count = 0;
+        for (long epochDay : epochDays) {
+            long shifted = (epochDay + 3) % 7;
+            count += (shifted < 0 ? shifted + 7 : shifted) < DayOfWeek.SATURDAY.ordinal() ? 1 : 0;
+        }
+        return count;
+    }
+}
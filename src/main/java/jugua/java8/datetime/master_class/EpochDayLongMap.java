@@ -0,0 +1,206 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * DateTimeHacking
+ *
+ * Map from epoch day to long, e.g. counts or sums per date, replacing HashMap&lt;LocalDate, Long&gt;
+ * without boxing, entry objects or LocalDate hash codes.
+ *
+ * Keys within an optional dense range live in plain arrays indexed by epoch day, so a map
+ * created for a known period (a year of trades) is just two arrays. Other keys go to an
+ * open addressing table with linear probing.
+ *
+ * Not thread safe.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class EpochDayLongMap {
+
+    public interface EntryConsumer {
+        void accept(long epochDay, long value);
+    }
+
+    static final long FREE = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private final long denseFrom;
+    private final long[] denseValues;
+    private final long[] denseUsed;
+    private int denseSize;
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    public EpochDayLongMap() {
+        this(0, 0);
+    }
+
+    private EpochDayLongMap(long denseFrom, int denseLength) {
+        this.denseFrom = denseFrom;
+        this.denseValues = new long[denseLength];
+        this.denseUsed = new long[(denseLength + 63) >>> 6];
+        this.keys = newKeys(MIN_CAPACITY);
+        this.values = new long[MIN_CAPACITY];
+    }
+
+    //Map keeping dates within [from, to] in arrays, other dates are still accepted
+    public static EpochDayLongMap forRange(LocalDate from, LocalDate to) {
+        long length = to.toEpochDay() - from.toEpochDay() + 1;
+        if (length < 0 || length > Integer.MAX_VALUE - 64) throw new UnsupportedOperationException("Unsupported range " + from + " - " + to);
+        return new EpochDayLongMap(from.toEpochDay(), (int) length);
+    }
+
+    //Number of dates as stringToLocalDate(date, formatPattern) would parse them
+    public static EpochDayLongMap countParsedDates(Iterable<? extends CharSequence> dates, String formatPattern) {
+        CompiledDatePattern pattern = CompiledDatePattern.compile(formatPattern);
+        EpochDayLongMap counts = new EpochDayLongMap();
+        for (CharSequence date : dates) {
+            counts.addTo(pattern.parseToEpochDay(date), 1);
+        }
+        return counts;
+    }
+
+    //Number of date/times per date, as truncateDateWithTimeToDateOnly(dateTime) gives
+    public static EpochDayLongMap countDatesOf(Iterable<LocalDateTime> dateTimes) {
+        EpochDayLongMap counts = new EpochDayLongMap();
+        for (LocalDateTime dateTime : dateTimes) {
+            counts.addTo(dateTime.toLocalDate().toEpochDay(), 1);
+        }
+        return counts;
+    }
+
+    public int size() {
+        return denseSize + size;
+    }
+
+    public boolean containsKey(long epochDay) {
+        int denseIndex = denseIndexOf(epochDay);
+        if (denseIndex >= 0) return (denseUsed[denseIndex >>> 6] & 1L << denseIndex) != 0;
+        return keys[slotOf(keys, epochDay)] != FREE;
+    }
+
+    public long get(long epochDay, long defaultValue) {
+        int denseIndex = denseIndexOf(epochDay);
+        if (denseIndex >= 0) return (denseUsed[denseIndex >>> 6] & 1L << denseIndex) != 0 ? denseValues[denseIndex] : defaultValue;
+        int slot = slotOf(keys, epochDay);
+        return keys[slot] != FREE ? values[slot] : defaultValue;
+    }
+
+    public long get(LocalDate date, long defaultValue) {
+        return get(date.toEpochDay(), defaultValue);
+    }
+
+    public void put(long epochDay, long value) {
+        int denseIndex = denseIndexOf(epochDay);
+        if (denseIndex >= 0) {
+            markDense(denseIndex);
+            denseValues[denseIndex] = value;
+            return;
+        }
+        int slot = claim(epochDay);
+        values[slot] = value;
+    }
+
+    //Adds delta to value of the key, missing keys start from 0. Returns new value.
+    public long addTo(long epochDay, long delta) {
+        int denseIndex = denseIndexOf(epochDay);
+        if (denseIndex >= 0) {
+            markDense(denseIndex);
+            return denseValues[denseIndex] += delta;
+        }
+        //Claiming may grow the table, so values array is read only after it
+        int slot = claim(epochDay);
+        return values[slot] += delta;
+    }
+
+    public long addTo(LocalDate date, long delta) {
+        return addTo(date.toEpochDay(), delta);
+    }
+
+    //Keys in ascending order
+    public long[] keys() {
+        long[] sorted = new long[size()];
+        int i = 0;
+        for (int denseIndex = 0; denseIndex < denseValues.length; denseIndex++) {
+            if ((denseUsed[denseIndex >>> 6] & 1L << denseIndex) != 0) sorted[i++] = denseFrom + denseIndex;
+        }
+        for (long key : keys) {
+            if (key != FREE) sorted[i++] = key;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    //Entries in no particular order
+    public void forEach(EntryConsumer consumer) {
+        for (int denseIndex = 0; denseIndex < denseValues.length; denseIndex++) {
+            if ((denseUsed[denseIndex >>> 6] & 1L << denseIndex) != 0) consumer.accept(denseFrom + denseIndex, denseValues[denseIndex]);
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) consumer.accept(keys[slot], values[slot]);
+        }
+    }
+
+    private int denseIndexOf(long epochDay) {
+        long denseIndex = epochDay - denseFrom;
+        return denseIndex >= 0 && denseIndex < denseValues.length ? (int) denseIndex : -1;
+    }
+
+    private void markDense(int denseIndex) {
+        long bit = 1L << denseIndex;
+        if ((denseUsed[denseIndex >>> 6] & bit) == 0) {
+            denseUsed[denseIndex >>> 6] |= bit;
+            denseSize++;
+        }
+    }
+
+    //Slot of the key, taking a free one if key is new
+    private int claim(long epochDay) {
+        if (epochDay == FREE) throw new UnsupportedOperationException("Epoch day " + epochDay + " is not supported");
+        int slot = slotOf(keys, epochDay);
+        if (keys[slot] == FREE) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = slotOf(keys, epochDay);
+            }
+            keys[slot] = epochDay;
+            size++;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = newKeys(oldKeys.length * 2);
+        values = new long[oldKeys.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE) {
+                int newSlot = slotOf(keys, oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        return keys;
+    }
+
+    //Slot holding the key or free slot where it should go. Consecutive days are
+    //spread over the table by Fibonacci hashing: top log2(capacity) bits of the product.
+    static int slotOf(long[] keys, long epochDay) {
+        int mask = keys.length - 1;
+        int slot = (int) ((epochDay * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(keys.length))) & mask;
+        while (keys[slot] != FREE && keys[slot] != epochDay) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+}
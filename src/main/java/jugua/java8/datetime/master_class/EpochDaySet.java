@@ -0,0 +1,131 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static jugua.java8.datetime.master_class.EpochDayLongMap.FREE;
+
+/**
+ * DateTimeHacking
+ *
+ * Set of epoch days replacing HashSet&lt;LocalDate&gt;, e.g. distinct trading dates.
+ * Like {@link EpochDayLongMap} keeps dates of an optional dense range in a bit set and
+ * others in an open addressing table.
+ *
+ * Not thread safe.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class EpochDaySet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final long denseFrom;
+    private final int denseLength;
+    private final long[] denseBits;
+    private int denseSize;
+    private long[] keys = EpochDayLongMap.newKeys(MIN_CAPACITY);
+    private int size;
+
+    public EpochDaySet() {
+        this(0, 0);
+    }
+
+    private EpochDaySet(long denseFrom, int denseLength) {
+        this.denseFrom = denseFrom;
+        this.denseLength = denseLength;
+        this.denseBits = new long[(denseLength + 63) >>> 6];
+    }
+
+    //Set keeping dates within [from, to] in a bit set, other dates are still accepted
+    public static EpochDaySet forRange(LocalDate from, LocalDate to) {
+        long length = to.toEpochDay() - from.toEpochDay() + 1;
+        if (length < 0 || length > Integer.MAX_VALUE - 64) throw new UnsupportedOperationException("Unsupported range " + from + " - " + to);
+        return new EpochDaySet(from.toEpochDay(), (int) length);
+    }
+
+    //Distinct dates as stringToLocalDate(date, formatPattern) would parse them
+    public static EpochDaySet ofParsedDates(Iterable<? extends CharSequence> dates, String formatPattern) {
+        CompiledDatePattern pattern = CompiledDatePattern.compile(formatPattern);
+        EpochDaySet set = new EpochDaySet();
+        for (CharSequence date : dates) {
+            set.add(pattern.parseToEpochDay(date));
+        }
+        return set;
+    }
+
+    //Distinct dates of date/times, as truncateDateWithTimeToDateOnly(dateTime) gives
+    public static EpochDaySet ofDatesOf(Iterable<LocalDateTime> dateTimes) {
+        EpochDaySet set = new EpochDaySet();
+        for (LocalDateTime dateTime : dateTimes) {
+            set.add(dateTime.toLocalDate().toEpochDay());
+        }
+        return set;
+    }
+
+    public int size() {
+        return denseSize + size;
+    }
+
+    public boolean contains(long epochDay) {
+        long denseIndex = epochDay - denseFrom;
+        if (denseIndex >= 0 && denseIndex < denseLength) return (denseBits[(int) (denseIndex >>> 6)] & 1L << denseIndex) != 0;
+        return keys[EpochDayLongMap.slotOf(keys, epochDay)] != FREE;
+    }
+
+    public boolean contains(LocalDate date) {
+        return contains(date.toEpochDay());
+    }
+
+    //True if the date was not in the set yet
+    public boolean add(long epochDay) {
+        long denseIndex = epochDay - denseFrom;
+        if (denseIndex >= 0 && denseIndex < denseLength) {
+            int word = (int) (denseIndex >>> 6);
+            long bit = 1L << denseIndex;
+            if ((denseBits[word] & bit) != 0) return false;
+            denseBits[word] |= bit;
+            denseSize++;
+            return true;
+        }
+        if (epochDay == FREE) throw new UnsupportedOperationException("Epoch day " + epochDay + " is not supported");
+        int slot = EpochDayLongMap.slotOf(keys, epochDay);
+        if (keys[slot] != FREE) return false;
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+            slot = EpochDayLongMap.slotOf(keys, epochDay);
+        }
+        keys[slot] = epochDay;
+        size++;
+        return true;
+    }
+
+    public boolean add(LocalDate date) {
+        return add(date.toEpochDay());
+    }
+
+    //Dates in ascending order
+    public long[] toSortedArray() {
+        long[] sorted = new long[size()];
+        int i = 0;
+        for (int word = 0; word < denseBits.length; word++) {
+            for (long bits = denseBits[word]; bits != 0; bits &= bits - 1) {
+                sorted[i++] = denseFrom + ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        for (long key : keys) {
+            if (key != FREE) sorted[i++] = key;
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        keys = EpochDayLongMap.newKeys(oldKeys.length * 2);
+        for (long key : oldKeys) {
+            if (key != FREE) keys[EpochDayLongMap.slotOf(keys, key)] = key;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * DateTimeHacking
+ *
+ * Calendar arithmetic on primitive epoch days (days since 1970-01-01), the same
+ * numbers {@link LocalDate#toEpochDay()} produces. Lets bulk code answer
+ * the questions {@link DateTimeFunctions} answers for single {@link LocalDate}
+ * objects without creating them.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class EpochDays {
+
+    //Days from 0000-03-01 to 1970-01-01 in proleptic Gregorian calendar, shared with EpochDayFields kernels
+    static final long DAYS_0000_TO_1970 = 719468;
+    static final int DAYS_PER_ERA = 146097;
+
+    private EpochDays() {}
+
+    public static long of(LocalDate date) {
+        return date.toEpochDay();
+    }
+
+    public static LocalDate toLocalDate(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    //Civil from days algorithm, see http://howardhinnant.github.io/date_algorithms.html
+    public static long of(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    public static int yearOf(long epochDay) {
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_PER_ERA);
+        int dayOfEra = (int) (z - era * DAYS_PER_ERA);
+        int yearOfEra = yearOfEra(dayOfEra);
+        int shiftedMonth = shiftedMonthOf(dayOfYear(dayOfEra, yearOfEra));
+        return (int) (yearOfEra + era * 400 + (shiftedMonth >= 10 ? 1 : 0));
+    }
+
+    public static int monthOf(long epochDay) {
+        int dayOfEra = (int) Math.floorMod(epochDay + DAYS_0000_TO_1970, (long) DAYS_PER_ERA);
+        int shiftedMonth = shiftedMonthOf(dayOfYear(dayOfEra, yearOfEra(dayOfEra)));
+        return shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+    }
+
+    public static int dayOf(long epochDay) {
+        int dayOfEra = (int) Math.floorMod(epochDay + DAYS_0000_TO_1970, (long) DAYS_PER_ERA);
+        int dayOfYear = dayOfYear(dayOfEra, yearOfEra(dayOfEra));
+        return dayOfMonthOf(dayOfYear, shiftedMonthOf(dayOfYear));
+    }
+
+    //Steps of civil from days algorithm within a 400 years era starting on March 1st,
+    //everything fits into int there and int divisions by constants are cheaper
+    static int yearOfEra(int dayOfEra) {
+        return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    }
+
+    static int dayOfYear(int dayOfEra, int yearOfEra) {
+        return dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    }
+
+    //0 - March ... 11 - February
+    static int shiftedMonthOf(int dayOfYear) {
+        return (5 * dayOfYear + 2) / 153;
+    }
+
+    static int dayOfMonthOf(int dayOfYear, int shiftedMonth) {
+        return dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+    }
+
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    public static int lengthOfMonth(int year, int month) {
+        return month == 2 ? (isLeapYear(year) ? 29 : 28) : 30 + ((month + (month >> 3)) & 1);
+    }
+
+    //Months since year 0, handy to do month arithmetic as plain addition
+    public static int monthIndexOf(long epochDay) {
+        return yearOf(epochDay) * 12 + monthOf(epochDay) - 1;
+    }
+
+    public static long lastDayOfMonth(int monthIndex) {
+        int year = Math.floorDiv(monthIndex, 12);
+        int month = Math.floorMod(monthIndex, 12) + 1;
+        return of(year, month, lengthOfMonth(year, month));
+    }
+
+    public static long lastDayOfMonth(long epochDay) {
+        return lastDayOfMonth(monthIndexOf(epochDay));
+    }
+
+    //ISO day of week: 1 - Monday ... 7 - Sunday. 1970-01-01 was Thursday.
+    public static int dayOfWeek(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L) + 1;
+    }
+
+    public static boolean isWorkingDay(long epochDay) {
+        return dayOfWeek(epochDay) <= DayOfWeek.FRIDAY.getValue();
+    }
+
+    //Same result as DateTimeFunctions.workingDaysAhead(workingDays) adjuster
+    public static long plusWorkingDays(long epochDay, int workingDays) {
+        if (workingDays <= 0) throw new UnsupportedOperationException("Working days should be positive number");
+        int dayOfWeek = dayOfWeek(epochDay);
+        //Weekend has same working days ahead as preceding Friday
+        long workingDay = dayOfWeek > DayOfWeek.FRIDAY.getValue() ? epochDay - (dayOfWeek - DayOfWeek.FRIDAY.getValue()) : epochDay;
+        long dayInWeek = Math.min(dayOfWeek, DayOfWeek.FRIDAY.getValue()) - 1;
+        long total = dayInWeek + workingDays;
+        return workingDay - dayInWeek + total / 5 * 7 + total % 5;
+    }
+
+    //Number of working days in [fromEpochDay, toEpochDay)
+    public static long workingDaysBetween(long fromEpochDay, long toEpochDay) {
+        return workingDaysBefore(toEpochDay) - workingDaysBefore(fromEpochDay);
+    }
+
+    private static long workingDaysBefore(long epochDay) {
+        long daysFromMonday = epochDay + 3;
+        return 5 * Math.floorDiv(daysFromMonday, 7L) + Math.min(Math.floorMod(daysFromMonday, 7L), 5);
+    }
+}
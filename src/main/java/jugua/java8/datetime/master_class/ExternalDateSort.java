@@ -0,0 +1,342 @@
+package jugua.java8.datetime.master_class;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Sorts delimited text files larger than memory by a date/time column, e.g.
+ *
+ *   java -cp classes jugua.java8.datetime.master_class.ExternalDateSort trades.csv sorted.csv 2 "dd/MM/yyyy HH:mm:ss" ,
+ *
+ * Column is parsed once per line into epoch second (same value stringToDateWithTime(...)
+ * .toEpochSecond(UTC) gives). Input is cut into runs which are radix sorted by these keys
+ * in parallel and spilled to temp files together with their keys, then runs are merged
+ * by a heap reading and writing through buffered file channels. Sort is stable: lines
+ * with equal dates keep input order.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ExternalDateSort {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int RECORD_HEADER_BYTES = 12;
+
+    private final char delimiter;
+    private final int column;
+    private final String formatPattern;
+    private final int linesPerRun;
+    private final int parallelism;
+
+    public ExternalDateSort(char delimiter, int column, String formatPattern) {
+        this(delimiter, column, formatPattern, 1 << 20, Runtime.getRuntime().availableProcessors());
+    }
+
+    //Up to parallelism + 1 runs of linesPerRun lines are kept in memory at once
+    public ExternalDateSort(char delimiter, int column, String formatPattern, int linesPerRun, int parallelism) {
+        if (column < 0) throw new UnsupportedOperationException("Column should be non negative number");
+        if (linesPerRun <= 0) throw new UnsupportedOperationException("Lines per run should be positive number");
+        if (parallelism <= 0) throw new UnsupportedOperationException("Parallelism should be positive number");
+        this.delimiter = delimiter;
+        this.column = column;
+        this.formatPattern = formatPattern;
+        this.linesPerRun = linesPerRun;
+        this.parallelism = parallelism;
+    }
+
+    public static class Stats {
+        private final long lines;
+        private final int runs;
+        private final long millis;
+        private final long peakHeapBytes;
+
+        private Stats(long lines, int runs, long millis, long peakHeapBytes) {
+            this.lines = lines;
+            this.runs = runs;
+            this.millis = millis;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        public long lines() {
+            return lines;
+        }
+
+        public int runs() {
+            return runs;
+        }
+
+        public long millis() {
+            return millis;
+        }
+
+        public long linesPerSecond() {
+            return lines * 1000 / Math.max(1, millis);
+        }
+
+        //Peak heap usage of the JVM while sorting, not only of the sort itself
+        public long peakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return lines + " lines in " + runs + " runs sorted in " + millis + "ms (" + linesPerSecond()
+                    + " lines/s), peak heap " + peakHeapBytes / (1024 * 1024) + "MB";
+        }
+    }
+
+    public Stats sort(Path input, Path output) throws IOException {
+        long started = System.nanoTime();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        Path tempDirectory = Files.createTempDirectory(output.toAbsolutePath().getParent(), "sort");
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<Path> runs = new ArrayList<>();
+        try {
+            long lines = spillRuns(input, tempDirectory, executor, runs);
+            merge(runs, output);
+            long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            return new Stats(lines, runs.size(), (System.nanoTime() - started) / 1000000, peakHeapBytes);
+        } finally {
+            executor.shutdownNow();
+            if (awaitSpills(executor)) {
+                for (Path run : runs) {
+                    Files.deleteIfExists(run);
+                }
+                Files.deleteIfExists(tempDirectory);
+            }
+        }
+    }
+
+    //On failure other spills may still be writing their runs, so files are deleted only once
+    //they stop. Spills stuck for a minute leave files behind rather than masking the failure.
+    private static boolean awaitSpills(ExecutorService executor) {
+        try {
+            return executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) heapPools.add(pool);
+        }
+        return heapPools;
+    }
+
+    private long spillRuns(Path input, Path tempDirectory, ExecutorService executor, List<Path> runs) throws IOException {
+        CompiledDatePattern pattern = CompiledDatePattern.compile(formatPattern);
+        Semaphore runsInMemory = new Semaphore(parallelism);
+        List<Future<?>> spills = new ArrayList<>();
+        long lines = 0;
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line = in.readLine();
+            while (line != null) {
+                String[] runLines = new String[linesPerRun];
+                long[] keys = new long[linesPerRun];
+                int size = 0;
+                for (; line != null && size < linesPerRun; line = in.readLine()) {
+                    keys[size] = pattern.parseToEpochSecond(columnOf(line));
+                    runLines[size++] = line;
+                }
+                lines += size;
+                Path run = tempDirectory.resolve("run" + runs.size());
+                runs.add(run);
+                runsInMemory.acquire();
+                int runSize = size;
+                spills.add(executor.submit(() -> {
+                    try {
+                        spill(run, runLines, keys, runSize);
+                    } finally {
+                        runsInMemory.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> spill : spills) {
+                spill.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        return lines;
+    }
+
+    private CharSequence columnOf(String line) {
+        int from = 0;
+        for (int i = 0; i < column; i++) {
+            from = line.indexOf(delimiter, from) + 1;
+            if (from == 0) throw new UnsupportedOperationException("Line has no column " + column + ": " + line);
+        }
+        int to = line.indexOf(delimiter, from);
+        return line.substring(from, to < 0 ? line.length() : to);
+    }
+
+    private static void spill(Path run, String[] lines, long[] keys, int size) throws IOException {
+        int[] order = radixSort(keys, size);
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            for (int i = 0; i < size; i++) {
+                byte[] bytes = lines[order[i]].getBytes(StandardCharsets.UTF_8);
+                buffer = ensureRoom(channel, buffer, RECORD_HEADER_BYTES + bytes.length);
+                buffer.putLong(keys[i]).putInt(bytes.length).put(bytes);
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    //Sorts keys[0, size) in place by LSD radix sort over bytes of (key - min) and
+    //returns original positions of sorted keys. Stable, dates of a run usually need 3-4 passes.
+    static int[] radixSort(long[] keys, int size) {
+        int[] order = new int[size];
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            min = Math.min(min, keys[i]);
+            max = Math.max(max, keys[i]);
+        }
+        if (size < 2) return order;
+        long[] sourceKeys = keys;
+        int[] sourceOrder = order;
+        long[] targetKeys = new long[size];
+        int[] targetOrder = new int[size];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 64 && (max - min) >>> shift != 0; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                counts[(int) ((sourceKeys[i] - min) >>> shift & 0xFF) + 1]++;
+            }
+            for (int digit = 0; digit < 256; digit++) {
+                counts[digit + 1] += counts[digit];
+            }
+            for (int i = 0; i < size; i++) {
+                int target = counts[(int) ((sourceKeys[i] - min) >>> shift & 0xFF)]++;
+                targetKeys[target] = sourceKeys[i];
+                targetOrder[target] = sourceOrder[i];
+            }
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapOrder = sourceOrder;
+            sourceOrder = targetOrder;
+            targetOrder = swapOrder;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, size);
+        }
+        return sourceOrder;
+    }
+
+    private static void merge(List<Path> runs, Path output) throws IOException {
+        PriorityQueue<RunReader> heap = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> a.key != b.key ? Long.compare(a.key, b.key) : Integer.compare(a.index, b.index));
+        List<RunReader> readers = new ArrayList<>();
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(runs.get(i), i);
+                readers.add(reader);
+                if (reader.next()) heap.add(reader);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            while (!heap.isEmpty()) {
+                RunReader reader = heap.poll();
+                buffer = ensureRoom(out, buffer, reader.line.length + 1);
+                buffer.put(reader.line).put((byte) '\n');
+                if (reader.next()) heap.add(reader);
+            }
+            drain(out, buffer);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.channel.close();
+            }
+        }
+    }
+
+    //Sequential reader of (key, line) records of a spilled run
+    private static class RunReader {
+        private final FileChannel channel;
+        private final int index;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        private long key;
+        private byte[] line;
+
+        RunReader(Path run, int index) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.index = index;
+            buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (!fill(RECORD_HEADER_BYTES)) return false;
+            key = buffer.getLong();
+            line = new byte[buffer.getInt()];
+            if (!fill(line.length)) throw new IOException("Run file is truncated");
+            buffer.get(line);
+            return true;
+        }
+
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return true;
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes).put(buffer);
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) break;
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+    }
+
+    private static ByteBuffer ensureRoom(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return buffer;
+        drain(channel, buffer);
+        return buffer.capacity() >= bytes ? buffer : ByteBuffer.allocate(bytes);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: ExternalDateSort <input> <output> <column> <pattern> [delimiter]");
+            return;
+        }
+        char delimiter = args.length > 4 ? args[4].charAt(0) : ',';
+        ExternalDateSort sort = new ExternalDateSort(delimiter, Integer.parseInt(args[2]), args[3]);
+        System.out.println(sort.sort(Paths.get(args[0]), Paths.get(args[1])));
+    }
+}
@@ -0,0 +1,64 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DateTimeHacking
+ *
+ * Clock standing still until it's moved explicitly, so code reading current date/time
+ * can be tested deterministically, e.g. moved over midnight or DST transition.
+ * Clocks in other zones returned by {@link #withZone} share the same time.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class FakeClock extends Clock {
+
+    private final AtomicLong millis;
+    private final ZoneId zone;
+
+    public FakeClock(Instant instant, ZoneId zone) {
+        this(new AtomicLong(instant.toEpochMilli()), zone);
+    }
+
+    public FakeClock(LocalDateTime dateTime, ZoneId zone) {
+        this(ZonedDateTime.of(dateTime, zone).toInstant(), zone);
+    }
+
+    private FakeClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    public void set(Instant instant) {
+        millis.set(instant.toEpochMilli());
+    }
+
+    public void advance(Duration duration) {
+        millis.addAndGet(duration.toMillis());
+    }
+
+    public void advanceMillis(long delta) {
+        millis.addAndGet(delta);
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new FakeClock(millis, zone);
+    }
+}
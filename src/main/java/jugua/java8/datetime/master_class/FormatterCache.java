@@ -0,0 +1,68 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+
+/**
+ * DateTimeHacking
+ *
+ * Formatters built from patterns once and shared afterwards.
+ * Unlike SimpleDateFormat, DateTimeFormatter is immutable and thread safe, so it can be shared.
+ * Formatters of explicit locale parse month and day names case insensitively and are cached
+ * per locale together with their compiled patterns.
+ *
+ * Formatters without explicit locale are cached per default FORMAT locale, so they follow
+ * Locale.setDefault just like ofPattern(pattern) does. Applications use a handful of locales,
+ * but patterns may come from user input, so each locale keeps at most
+ * {@value #MAX_PATTERNS_PER_LOCALE} of them and builds any further ones per call.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class FormatterCache {
+
+    static final int MAX_PATTERNS_PER_LOCALE = 512;
+
+    private static final ConcurrentMap<Locale, ConcurrentMap<String, DateTimeFormatter>> FORMATTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Locale, ConcurrentMap<String, DateTimeFormatter>> LOCALIZED = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Locale, ConcurrentMap<String, CompiledDatePattern>> COMPILED = new ConcurrentHashMap<>();
+
+    private FormatterCache() {}
+
+    //Same formatter as ofPattern(formatPattern) gives for current default locale
+    public static DateTimeFormatter of(String formatPattern) {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        return cached(FORMATTERS, locale, formatPattern, pattern -> ofPattern(pattern, locale));
+    }
+
+    public static DateTimeFormatter of(String formatPattern, Locale locale) {
+        return cached(LOCALIZED, locale, formatPattern,
+                pattern -> new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern(pattern).toFormatter(locale));
+    }
+
+    public static CompiledDatePattern compiled(String formatPattern, Locale locale) {
+        return cached(COMPILED, locale, formatPattern, pattern -> CompiledDatePattern.compile(pattern, locale));
+    }
+
+    public static boolean contains(String formatPattern) {
+        ConcurrentMap<String, DateTimeFormatter> formatters = FORMATTERS.get(Locale.getDefault(Locale.Category.FORMAT));
+        return formatters != null && formatters.containsKey(formatPattern);
+    }
+
+    private static <T> T cached(ConcurrentMap<Locale, ConcurrentMap<String, T>> caches, Locale locale, String formatPattern,
+                                Function<String, T> factory) {
+        ConcurrentMap<String, T> cache = caches.get(locale);
+        if (cache == null) {
+            cache = caches.computeIfAbsent(locale, key -> new ConcurrentHashMap<>());
+        }
+        T cachedValue = cache.get(formatPattern);
+        if (cachedValue != null) return cachedValue;
+        if (cache.size() >= MAX_PATTERNS_PER_LOCALE) return factory.apply(formatPattern);
+        return cache.computeIfAbsent(formatPattern, factory);
+    }
+}
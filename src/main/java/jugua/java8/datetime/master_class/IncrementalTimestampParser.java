@@ -0,0 +1,107 @@
+package jugua.java8.datetime.master_class;
+
+/**
+ * DateTimeHacking
+ *
+ * Parser of timestamps coming in (almost) monotonic order, like lines of a log file,
+ * into epoch seconds (date/time taken as UTC, same as
+ * stringToDateWithTime(text, pattern).toEpochSecond(ZoneOffset.UTC)).
+ *
+ * Consecutive lines usually share the date part, so parser remembers characters of the
+ * last parsed text and epoch day of its date prefix. When next text has the same characters
+ * everywhere but digits of hours, minutes and seconds only those are parsed, otherwise the whole text goes through
+ * {@link CompiledDatePattern}. Works for fixed width patterns with date fields ahead of time
+ * fields, e.g. "yyyy-MM-dd HH:mm:ss", other patterns are always parsed completely.
+ *
+ * Keeps mutable state, so every thread needs its own parser.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class IncrementalTimestampParser {
+
+    private static final int SECONDS_PER_DAY = 86400;
+
+    private final CompiledDatePattern pattern;
+    private final int textLength;
+    //Last remembered text, all its chars except time digits must match for incremental parsing
+    private final char[] template;
+    private final boolean[] timeDigits;
+    private final int hourOffset;
+    private final int minuteOffset;
+    private final int secondOffset;
+    private long epochDay;
+    private boolean hasPrefix;
+    private long incrementalParses;
+
+    public IncrementalTimestampParser(String formatPattern) {
+        this.pattern = CompiledDatePattern.compile(formatPattern);
+        this.textLength = pattern.textLength();
+        int prefixLength = pattern.datePrefixLength();
+        this.hourOffset = pattern.timeFieldOffset('H');
+        this.minuteOffset = pattern.timeFieldOffset('m');
+        this.secondOffset = pattern.timeFieldOffset('s');
+        boolean incremental = prefixLength >= 0 && hourOffset >= 0 && minuteOffset >= 0 && pattern.timeFieldOffset('S') < 0;
+        this.template = incremental ? new char[textLength] : null;
+        this.timeDigits = incremental ? new boolean[textLength] : null;
+        if (incremental) {
+            for (int offset : new int[]{hourOffset, minuteOffset, secondOffset}) {
+                if (offset < 0) continue;
+                timeDigits[offset] = true;
+                timeDigits[offset + 1] = true;
+            }
+        }
+    }
+
+    public long parseToEpochSecond(CharSequence text) {
+        if (hasPrefix && text.length() == textLength && sameDateAndLiterals(text)) {
+            int secondOfDay = secondOfDay(text);
+            if (secondOfDay >= 0) {
+                incrementalParses++;
+                return epochDay * SECONDS_PER_DAY + secondOfDay;
+            }
+        }
+        long epochSecond = pattern.parseToEpochSecond(text);
+        rememberPrefix(text, epochSecond);
+        return epochSecond;
+    }
+
+    //Number of texts parsed by reusing previous date prefix, handy to check how monotonic input is
+    public long incrementalParses() {
+        return incrementalParses;
+    }
+
+    private boolean sameDateAndLiterals(CharSequence text) {
+        for (int i = template.length - 1; i >= 0; i--) {
+            if (!timeDigits[i] && text.charAt(i) != template[i]) return false;
+        }
+        return true;
+    }
+
+    //Second of day or -1 if text should be parsed completely
+    private int secondOfDay(CharSequence text) {
+        int hour = twoDigits(text, hourOffset);
+        int minute = twoDigits(text, minuteOffset);
+        int second = secondOffset < 0 ? 0 : twoDigits(text, secondOffset);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) return -1;
+        return hour * 3600 + minute * 60 + second;
+    }
+
+    private static int twoDigits(CharSequence text, int offset) {
+        int tens = text.charAt(offset) - '0';
+        int units = text.charAt(offset + 1) - '0';
+        if (tens < 0 || tens > 9 || units < 0 || units > 9) return -1;
+        return tens * 10 + units;
+    }
+
+    private void rememberPrefix(CharSequence text, long epochSecond) {
+        if (template == null || text.length() != textLength) return;
+        //Texts like 24:00:00 are resolved into the next day, such prefix is not worth remembering
+        int secondOfDay = secondOfDay(text);
+        if (secondOfDay < 0) return;
+        for (int i = 0; i < template.length; i++) {
+            template[i] = text.charAt(i);
+        }
+        epochDay = Math.floorDiv(epochSecond - secondOfDay, SECONDS_PER_DAY);
+        hasPrefix = true;
+    }
+}
@@ -0,0 +1,141 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.DayOfWeek;
+import java.time.temporal.IsoFields;
+import java.time.temporal.WeekFields;
+
+/**
+ * DateTimeHacking
+ *
+ * Week based fields and day of week adjusters on primitive epoch days, for single dates and
+ * whole columns, so weekly rollups don't go through {@link WeekFields} or Calendar per row.
+ *
+ * Week of week based year and week based year are the ISO ones ({@link IsoFields}): weeks
+ * start on Monday and week 1 is the one with the first Thursday of the year. Week of month
+ * follows {@link WeekFields#ISO}, so days before the first Monday of a month may be in week 0.
+ * Adjusters give the same dates as {@link java.time.temporal.TemporalAdjusters} ones.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class IsoWeeks {
+
+    private IsoWeeks() {}
+
+    //IsoFields.WEEK_BASED_YEAR
+    public static int weekBasedYear(long epochDay) {
+        return yearOf(thursdayOfWeek(epochDay));
+    }
+
+    //IsoFields.WEEK_OF_WEEK_BASED_YEAR
+    public static int weekOfWeekBasedYear(long epochDay) {
+        long thursday = thursdayOfWeek(epochDay);
+        return (int) ((thursday - EpochDays.of(yearOf(thursday), 1, 1)) / 7) + 1;
+    }
+
+    //Week based year * 100 + week, e.g. 201422, handy as a key of weekly rollups
+    public static int yearWeek(long epochDay) {
+        long thursday = thursdayOfWeek(epochDay);
+        int year = yearOf(thursday);
+        return year * 100 + (int) ((thursday - EpochDays.of(year, 1, 1)) / 7) + 1;
+    }
+
+    //WeekFields.ISO.weekOfMonth()
+    public static int weekOfMonth(long epochDay) {
+        int dayOfMonth = (int) (epochDay - MonthArithmetic.firstDayOfMonth(MonthArithmetic.monthIndexOf(epochDay))) + 1;
+        int weekStart = Math.floorMod(dayOfMonth - EpochDays.dayOfWeek(epochDay), 7);
+        //First week of month needs at least 4 days, same as the first week of year
+        int offset = weekStart + 1 > 4 ? 7 - weekStart : -weekStart;
+        return (7 + offset + (dayOfMonth - 1)) / 7;
+    }
+
+    //Monday of ISO week of given week based year, week 1 - 53
+    public static long mondayOf(int weekBasedYear, int week) {
+        long january4 = EpochDays.of(weekBasedYear, 1, 4);
+        return january4 - EpochDays.dayOfWeek(january4) + 1 + (week - 1) * 7L;
+    }
+
+    //TemporalAdjusters.next(dayOfWeek): first such day after given one
+    public static long next(long epochDay, DayOfWeek dayOfWeek) {
+        return epochDay + Math.floorMod(dayOfWeek.getValue() - EpochDays.dayOfWeek(epochDay) - 1, 7) + 1;
+    }
+
+    //TemporalAdjusters.nextOrSame(dayOfWeek)
+    public static long nextOrSame(long epochDay, DayOfWeek dayOfWeek) {
+        return epochDay + Math.floorMod(dayOfWeek.getValue() - EpochDays.dayOfWeek(epochDay), 7);
+    }
+
+    //TemporalAdjusters.previous(dayOfWeek): last such day before given one
+    public static long previous(long epochDay, DayOfWeek dayOfWeek) {
+        return epochDay - Math.floorMod(EpochDays.dayOfWeek(epochDay) - dayOfWeek.getValue() - 1, 7) - 1;
+    }
+
+    //TemporalAdjusters.previousOrSame(dayOfWeek)
+    public static long previousOrSame(long epochDay, DayOfWeek dayOfWeek) {
+        return epochDay - Math.floorMod(EpochDays.dayOfWeek(epochDay) - dayOfWeek.getValue(), 7);
+    }
+
+    //TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek) for ordinal 1 - 5 or -1 for the last one
+    public static long dayOfWeekInMonth(long epochDay, int ordinal, DayOfWeek dayOfWeek) {
+        long monthIndex = MonthArithmetic.monthIndexOf(epochDay);
+        if (ordinal < 0) {
+            long lastDay = MonthArithmetic.firstDayOfMonth(monthIndex) + MonthArithmetic.lengthOfMonth(monthIndex) - 1;
+            return previousOrSame(lastDay, dayOfWeek) + (ordinal + 1) * 7L;
+        }
+        return nextOrSame(MonthArithmetic.firstDayOfMonth(monthIndex), dayOfWeek) + (ordinal - 1) * 7L;
+    }
+
+    public static int[] weekBasedYears(long[] epochDays) {
+        int[] years = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            years[i] = weekBasedYear(epochDays[i]);
+        }
+        return years;
+    }
+
+    public static int[] weeksOfWeekBasedYear(long[] epochDays) {
+        int[] weeks = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            weeks[i] = weekOfWeekBasedYear(epochDays[i]);
+        }
+        return weeks;
+    }
+
+    public static int[] yearWeeks(long[] epochDays) {
+        int[] yearWeeks = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            yearWeeks[i] = yearWeek(epochDays[i]);
+        }
+        return yearWeeks;
+    }
+
+    public static int[] weeksOfMonth(long[] epochDays) {
+        int[] weeks = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            weeks[i] = weekOfMonth(epochDays[i]);
+        }
+        return weeks;
+    }
+
+    //Moves every date to the next given day of week in place
+    public static void next(long[] epochDays, DayOfWeek dayOfWeek) {
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = next(epochDays[i], dayOfWeek);
+        }
+    }
+
+    //Moves every date to the previous given day of week or leaves it if it is such day, e.g. to Monday of its week
+    public static void previousOrSame(long[] epochDays, DayOfWeek dayOfWeek) {
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = previousOrSame(epochDays[i], dayOfWeek);
+        }
+    }
+
+    private static long thursdayOfWeek(long epochDay) {
+        return epochDay - EpochDays.dayOfWeek(epochDay) + DayOfWeek.THURSDAY.getValue();
+    }
+
+    private static int yearOf(long epochDay) {
+        int packed = EpochDayFields.packedFieldsOf(epochDay);
+        return packed >= 0 ? packed >>> 9 : EpochDays.yearOf(epochDay);
+    }
+}
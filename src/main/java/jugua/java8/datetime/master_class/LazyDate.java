@@ -0,0 +1,144 @@
+package jugua.java8.datetime.master_class;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DateTimeHacking
+ *
+ * Date kept as raw text (a region of a CharSequence or of ASCII bytes) until it's really
+ * needed. Records filtered out before their dates are used never pay for parsing, and
+ * filtering itself often doesn't need parsing either: dates of patterns like yyyy-MM-dd or
+ * yyyyMMdd HH:mm are compared char by char.
+ *
+ * Parsing is done by {@link CompiledDatePattern}, so results and exceptions are the same
+ * as {@link DateTimeFunctions#stringToLocalDate} gives, and happens at most once.
+ * Text comparison doesn't validate dates, e.g. 2014-02-30 comes before 2014-03-01.
+ *
+ * Doesn't copy the text, so it must not be changed while date is in use. Not thread safe.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class LazyDate implements CharSequence, Comparable<LazyDate> {
+
+    private final CompiledDatePattern pattern;
+    private final CharSequence chars;
+    private final byte[] bytes;
+    private final int from;
+    private final int length;
+    private boolean parsed;
+    private long epochDay;
+    private LocalDateTime dateTime;
+
+    private LazyDate(CompiledDatePattern pattern, CharSequence chars, byte[] bytes, int from, int length) {
+        this.pattern = pattern;
+        this.chars = chars;
+        this.bytes = bytes;
+        this.from = from;
+        this.length = length;
+    }
+
+    public static LazyDate of(CharSequence text, CompiledDatePattern pattern) {
+        return of(text, 0, text.length(), pattern);
+    }
+
+    //Date in text region [from, to), e.g. a column of a line
+    public static LazyDate of(CharSequence text, int from, int to, CompiledDatePattern pattern) {
+        if (from < 0 || to > text.length() || from > to) throw new IndexOutOfBoundsException("Region " + from + " - " + to + " of " + text.length());
+        return new LazyDate(pattern, text, null, from, to - from);
+    }
+
+    //Date in ASCII bytes region [from, to), e.g. a field of a memory mapped file read into array
+    public static LazyDate ofAscii(byte[] bytes, int from, int to, CompiledDatePattern pattern) {
+        if (from < 0 || to > bytes.length || from > to) throw new IndexOutOfBoundsException("Region " + from + " - " + to + " of " + bytes.length);
+        return new LazyDate(pattern, null, bytes, from, to - from);
+    }
+
+    //Date formatted in given pattern, handy as a bound to compare lazy dates with
+    public static LazyDate of(LocalDate date, CompiledDatePattern pattern) {
+        return of(pattern.format(date), pattern);
+    }
+
+    public CompiledDatePattern pattern() {
+        return pattern;
+    }
+
+    public long epochDay() {
+        if (!parsed) {
+            epochDay = pattern.parseToEpochDay(this);
+            parsed = true;
+        }
+        return epochDay;
+    }
+
+    public int year() {
+        return EpochDays.yearOf(epochDay());
+    }
+
+    public int month() {
+        return EpochDays.monthOf(epochDay());
+    }
+
+    public int day() {
+        return EpochDays.dayOf(epochDay());
+    }
+
+    public LocalDate toLocalDate() {
+        return LocalDate.ofEpochDay(epochDay());
+    }
+
+    //Date with time for patterns having time fields, as stringToDateWithTime gives
+    public LocalDateTime toLocalDateTime() {
+        if (dateTime == null) {
+            dateTime = pattern.parseDateTime(this);
+        }
+        return dateTime;
+    }
+
+    //Orders by date only, time of date/time patterns is ignored
+    @Override
+    public int compareTo(LazyDate other) {
+        int prefixLength = pattern == other.pattern ? pattern.orderedDatePrefixLength() : -1;
+        if (prefixLength < 0 || length != other.length) return Long.compare(epochDay(), other.epochDay());
+        for (int i = 0; i < prefixLength; i++) {
+            int difference = charAt(i) - other.charAt(i);
+            if (difference != 0) return difference;
+        }
+        return 0;
+    }
+
+    public boolean isBefore(LazyDate other) {
+        return compareTo(other) < 0;
+    }
+
+    public boolean isAfter(LazyDate other) {
+        return compareTo(other) > 0;
+    }
+
+    public boolean isEqual(LazyDate other) {
+        return compareTo(other) == 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index " + index + ", length " + length);
+        return bytes != null ? (char) (bytes[from + index] & 0xFF) : chars.charAt(from + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return bytes != null ? new String(bytes, from, length, StandardCharsets.ISO_8859_1)
+                : chars.subSequence(from, from + length).toString();
+    }
+}
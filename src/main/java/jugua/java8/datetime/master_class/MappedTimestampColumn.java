@@ -0,0 +1,231 @@
+package jugua.java8.datetime.master_class;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * DateTimeHacking
+ *
+ * Column of epoch days or epoch seconds kept off heap in a memory mapped file.
+ * Billions of timestamps don't put any pressure on GC, and reopening the file
+ * after restart maps the same data back without reading it.
+ *
+ * File starts with a header (magic, unit, size) followed by values as longs.
+ * Data is mapped in segments as mapped buffer can't be larger than 2GB. Each segment holds
+ * 16M values (128MB), and the file grows by a whole segment at once, so even the first
+ * append makes the file 128MB long (sparse on most file systems).
+ *
+ * Not thread safe. Mapping is released by GC as Java 8 has no way to unmap buffer explicitly.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class MappedTimestampColumn implements AutoCloseable {
+
+    public enum Unit { EPOCH_DAYS, EPOCH_SECONDS }
+
+    private static final int MAGIC = 0x4454434C;
+    private static final int HEADER_BYTES = 16;
+    private static final int SEGMENT_SHIFT = 24;
+    private static final long VALUES_PER_SEGMENT = 1L << SEGMENT_SHIFT;
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final Unit unit;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long size;
+
+    private MappedTimestampColumn(FileChannel channel, Unit unit) throws IOException {
+        this.channel = channel;
+        //Only new or empty files get a header, anything else has to be a column already
+        boolean existing = channel.size() > 0;
+        if (existing && (channel.size() < HEADER_BYTES || magicOf(channel) != MAGIC)) {
+            throw new IOException("File is not a timestamp column, refusing to overwrite it");
+        }
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        if (existing) {
+            int storedUnit = header.getInt(4);
+            long storedSize = header.getLong(8);
+            if (storedUnit < 0 || storedUnit >= Unit.values().length || storedSize < 0) {
+                throw new IOException("Corrupt timestamp column header: unit " + storedUnit + ", size " + storedSize);
+            }
+            this.unit = Unit.values()[storedUnit];
+            if (this.unit != unit) throw new UnsupportedOperationException("Column stores " + this.unit + ", not " + unit);
+            this.size = storedSize;
+        } else {
+            this.unit = unit;
+            header.putInt(0, MAGIC).putInt(4, unit.ordinal()).putLong(8, 0);
+        }
+        ensureCapacity(size);
+    }
+
+    //Creates a new column or maps existing one back
+    public static MappedTimestampColumn open(Path file, Unit unit) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new MappedTimestampColumn(channel, unit);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static int magicOf(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        channel.read(magic, 0);
+        return magic.getInt(0);
+    }
+
+    public Unit unit() {
+        return unit;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public void append(long value) throws IOException {
+        ensureCapacity(size + 1);
+        write(size, value);
+        size++;
+        header.putLong(8, size);
+    }
+
+    public void append(LocalDate date) throws IOException {
+        append(unit == Unit.EPOCH_DAYS ? date.toEpochDay() : date.atStartOfDay().toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public void append(LocalDateTime dateTime) throws IOException {
+        append(unit == Unit.EPOCH_DAYS ? dateTime.toLocalDate().toEpochDay() : dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public long get(long index) {
+        checkIndex(index);
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & (VALUES_PER_SEGMENT - 1)) << 3);
+    }
+
+    public LocalDate dateAt(long index) {
+        long value = get(index);
+        return LocalDate.ofEpochDay(unit == Unit.EPOCH_DAYS ? value : Math.floorDiv(value, SECONDS_PER_DAY));
+    }
+
+    public void set(long index, long value) {
+        checkIndex(index);
+        write(index, value);
+    }
+
+    private void write(long index, long value) {
+        segments[(int) (index >>> SEGMENT_SHIFT)].putLong((int) (index & (VALUES_PER_SEGMENT - 1)) << 3, value);
+    }
+
+    //Indexes of values falling on dates within [from, to], rows don't need to be sorted
+    public long[] scan(LocalDate from, LocalDate to) {
+        long lower = unit == Unit.EPOCH_DAYS ? from.toEpochDay() : from.toEpochDay() * SECONDS_PER_DAY;
+        long upper = unit == Unit.EPOCH_DAYS ? to.toEpochDay() : (to.toEpochDay() + 1) * SECONDS_PER_DAY - 1;
+        long[] indexes = new long[16];
+        int found = 0;
+        for (int segment = 0; segment < segments.length; segment++) {
+            MappedByteBuffer buffer = segments[segment];
+            long base = (long) segment << SEGMENT_SHIFT;
+            int valuesInSegment = (int) Math.min(VALUES_PER_SEGMENT, size - base);
+            for (int i = 0; i < valuesInSegment; i++) {
+                long value = buffer.getLong(i << 3);
+                if (value >= lower && value <= upper) {
+                    if (found == indexes.length) {
+                        indexes = Arrays.copyOf(indexes, found * 2);
+                    }
+                    indexes[found++] = base + i;
+                }
+            }
+        }
+        return Arrays.copyOf(indexes, found);
+    }
+
+    //Operation on values of one unit, see operations below
+    public static final class Operation {
+        private final Unit unit;
+        private final LongUnaryOperator function;
+
+        private Operation(Unit unit, LongUnaryOperator function) {
+            this.unit = unit;
+            this.function = function;
+        }
+
+        public Unit unit() {
+            return unit;
+        }
+    }
+
+    public static Operation operation(Unit unit, LongUnaryOperator function) {
+        return new Operation(unit, function);
+    }
+
+    //Applies operation to every value in place, operation should be made for unit of this column
+    public void replaceAll(Operation operation) {
+        if (operation.unit != unit) throw new UnsupportedOperationException("Operation on " + operation.unit + " can't be applied to column of " + unit);
+        LongUnaryOperator function = operation.function;
+        for (int segment = 0; segment < segments.length; segment++) {
+            MappedByteBuffer buffer = segments[segment];
+            int valuesInSegment = (int) Math.min(VALUES_PER_SEGMENT, size - ((long) segment << SEGMENT_SHIFT));
+            for (int i = 0; i < valuesInSegment; i++) {
+                buffer.putLong(i << 3, function.applyAsLong(buffer.getLong(i << 3)));
+            }
+        }
+    }
+
+    //Epoch day operations, same as DateTimeFunctions do for LocalDate
+    public static Operation addingDays(int numberOfDays) {
+        return operation(Unit.EPOCH_DAYS, epochDay -> epochDay + numberOfDays);
+    }
+
+    public static Operation addingWorkingDays(int workingDays) {
+        return operation(Unit.EPOCH_DAYS, epochDay -> EpochDays.plusWorkingDays(epochDay, workingDays));
+    }
+
+    public static Operation adjustingToLastDayOfAMonth() {
+        return operation(Unit.EPOCH_DAYS, EpochDays::lastDayOfMonth);
+    }
+
+    //Epoch second operations
+    public static Operation truncatingToDateOnly() {
+        return operation(Unit.EPOCH_SECONDS, epochSecond -> Math.floorDiv(epochSecond, SECONDS_PER_DAY) * SECONDS_PER_DAY);
+    }
+
+    public void force() {
+        header.force();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        segments = new MappedByteBuffer[0];
+        channel.close();
+    }
+
+    private void ensureCapacity(long capacity) throws IOException {
+        int requiredSegments = (int) ((capacity + VALUES_PER_SEGMENT - 1) >>> SEGMENT_SHIFT);
+        if (requiredSegments <= segments.length) return;
+        MappedByteBuffer[] grown = Arrays.copyOf(segments, requiredSegments);
+        for (int segment = segments.length; segment < requiredSegments; segment++) {
+            grown[segment] = channel.map(FileChannel.MapMode.READ_WRITE,
+                    HEADER_BYTES + ((long) segment << (SEGMENT_SHIFT + 3)), VALUES_PER_SEGMENT << 3);
+        }
+        segments = grown;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+    }
+}
@@ -0,0 +1,123 @@
+package jugua.java8.datetime.master_class;
+
+import java.util.stream.IntStream;
+
+/**
+ * DateTimeHacking
+ *
+ * Month and year shifts of whole epoch day columns, e.g. payment schedules of every
+ * position of a loan book. Each date is split once into month index (months since year 0)
+ * and day of month, shifted by plain addition and put back together from a table of
+ * first days of months, so month lengths and clamping cost a couple of array reads.
+ *
+ * {@link EndOfMonth#CLAMP} gives the same results as {@link DateTimeFunctions#addMonthsToGivenLocalDate}
+ * and {@link DateTimeFunctions#addYearsToGivenLocalDate}.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class MonthArithmetic {
+
+    public enum EndOfMonth {
+        //Day of month stays the same unless target month is shorter: 31 Jan + 1 month = 28 Feb
+        CLAMP,
+        //Last day of month moves to last day of target month: 28 Feb + 1 month = 31 Mar
+        STICK_TO_END_OF_MONTH
+    }
+
+    private static final int ROWS_PER_TASK = 1 << 16;
+    private static final int TABLE_FROM_YEAR = 1900;
+    private static final int TABLE_TO_YEAR = 2100;
+    private static final long TABLE_FROM = TABLE_FROM_YEAR * 12L;
+    private static final long TABLE_TO = TABLE_TO_YEAR * 12L;
+    //Epoch day of the first day of every month in [TABLE_FROM, TABLE_TO], by month index
+    private static final long[] MONTH_STARTS = monthStarts();
+
+    private MonthArithmetic() {}
+
+    private static long[] monthStarts() {
+        long[] starts = new long[(int) (TABLE_TO - TABLE_FROM) + 1];
+        starts[0] = EpochDays.of(TABLE_FROM_YEAR, 1, 1);
+        for (int i = 1; i < starts.length; i++) {
+            int year = TABLE_FROM_YEAR + (i - 1) / 12;
+            starts[i] = starts[i - 1] + EpochDays.lengthOfMonth(year, (i - 1) % 12 + 1);
+        }
+        return starts;
+    }
+
+    public static long plusMonths(long epochDay, long months, EndOfMonth rule) {
+        long monthIndex = monthIndexOf(epochDay);
+        int day = (int) (epochDay - firstDayOfMonth(monthIndex)) + 1;
+        long target = monthIndex + months;
+        int targetLength = lengthOfMonth(target);
+        if (rule == EndOfMonth.STICK_TO_END_OF_MONTH && day == lengthOfMonth(monthIndex)) {
+            day = targetLength;
+        }
+        return firstDayOfMonth(target) + Math.min(day, targetLength) - 1;
+    }
+
+    public static long[] plusMonths(long[] epochDays, long months, EndOfMonth rule) {
+        long[] shifted = new long[epochDays.length];
+        plusMonths(epochDays, 0, epochDays.length, months, rule, shifted);
+        return shifted;
+    }
+
+    //Shifts rows [from, to) into the same rows of result, which may be the input itself
+    public static void plusMonths(long[] epochDays, int from, int to, long months, EndOfMonth rule, long[] result) {
+        for (int i = from; i < to; i++) {
+            result[i] = plusMonths(epochDays[i], months, rule);
+        }
+    }
+
+    public static long[] plusMonthsInParallel(long[] epochDays, long months, EndOfMonth rule) {
+        long[] shifted = new long[epochDays.length];
+        int tasks = (epochDays.length + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        IntStream.range(0, tasks).parallel()
+                .forEach(task -> plusMonths(epochDays, task * ROWS_PER_TASK,
+                        Math.min(epochDays.length, (task + 1) * ROWS_PER_TASK), months, rule, shifted));
+        return shifted;
+    }
+
+    public static long[] plusYears(long[] epochDays, long years, EndOfMonth rule) {
+        return plusMonths(epochDays, Math.multiplyExact(years, 12), rule);
+    }
+
+    //Same as DateTimeFunctions.adjustDateToLastDayOfAMonth applied to every row
+    public static long[] lastDaysOfMonths(long[] epochDays) {
+        long[] lastDays = new long[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            long monthIndex = monthIndexOf(epochDays[i]);
+            lastDays[i] = firstDayOfMonth(monthIndex) + lengthOfMonth(monthIndex) - 1;
+        }
+        return lastDays;
+    }
+
+    //Dates of payments every N months starting from given one. Every payment is counted from
+    //the first one, not from previous one, so 31 Jan is followed by 28 Feb and then 31 Mar.
+    public static long[] schedule(long firstEpochDay, int everyMonths, int payments, EndOfMonth rule) {
+        if (everyMonths <= 0) throw new UnsupportedOperationException("Months between payments should be positive number");
+        long[] schedule = new long[payments];
+        for (int i = 0; i < payments; i++) {
+            schedule[i] = plusMonths(firstEpochDay, (long) i * everyMonths, rule);
+        }
+        return schedule;
+    }
+
+    static long monthIndexOf(long epochDay) {
+        int packed = EpochDayFields.packedFieldsOf(epochDay);
+        if (packed >= 0) return (packed >>> 9) * 12L + ((packed >>> 5) & 15) - 1;
+        return EpochDays.yearOf(epochDay) * 12L + EpochDays.monthOf(epochDay) - 1;
+    }
+
+    static long firstDayOfMonth(long monthIndex) {
+        if (monthIndex >= TABLE_FROM && monthIndex < TABLE_TO) return MONTH_STARTS[(int) (monthIndex - TABLE_FROM)];
+        return EpochDays.of(Math.toIntExact(Math.floorDiv(monthIndex, 12)), (int) Math.floorMod(monthIndex, 12) + 1, 1);
+    }
+
+    static int lengthOfMonth(long monthIndex) {
+        if (monthIndex >= TABLE_FROM && monthIndex < TABLE_TO) {
+            int i = (int) (monthIndex - TABLE_FROM);
+            return (int) (MONTH_STARTS[i + 1] - MONTH_STARTS[i]);
+        }
+        return EpochDays.lengthOfMonth(Math.toIntExact(Math.floorDiv(monthIndex, 12)), (int) Math.floorMod(monthIndex, 12) + 1);
+    }
+}
@@ -0,0 +1,66 @@
+package jugua.java8.datetime.master_class;
+
+import java.util.Arrays;
+
+/**
+ * DateTimeHacking
+ *
+ * Trie of names (months, days of week) finding the longest name at given position of a text
+ * in one pass over its chars, instead of trying names one by one. Case insensitive trie
+ * compares chars the way DateTimeFormatterBuilder.parseCaseInsensitive() does.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+final class NameTrie {
+
+    private static final int AMBIGUOUS = -2;
+
+    private final boolean caseInsensitive;
+    private final Node root = new Node();
+
+    NameTrie(String[] names, boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+        for (int index = 0; index < names.length; index++) {
+            Node node = root;
+            for (int i = 0; i < names[index].length(); i++) {
+                node = node.child(normalize(names[index].charAt(i)), true);
+            }
+            //Names equal to each other (ignoring case) can't tell which one was parsed
+            node.index = node.index == -1 ? index : AMBIGUOUS;
+        }
+    }
+
+    //Index of the longest name matching text at given position, -1 if there is no such or it's ambiguous.
+    //Matched name has the same length as the name itself.
+    int match(CharSequence text, int position) {
+        Node node = root;
+        int found = -1;
+        for (int i = position; i < text.length(); i++) {
+            node = node.child(normalize(text.charAt(i)), false);
+            if (node == null) break;
+            if (node.index != -1) found = node.index;
+        }
+        return found == AMBIGUOUS ? -1 : found;
+    }
+
+    private char normalize(char c) {
+        return caseInsensitive ? Character.toLowerCase(Character.toUpperCase(c)) : c;
+    }
+
+    private static class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int index = -1;
+
+        Node child(char key, boolean create) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) return children[i];
+            }
+            if (!create) return null;
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            return children[children.length - 1] = new Node();
+        }
+    }
+}
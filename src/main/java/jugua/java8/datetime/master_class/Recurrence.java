@@ -0,0 +1,192 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.time.temporal.TemporalAdjusters.nextOrSame;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Recurrence rule (every 2nd Tuesday, last working day of a month, every N working days...)
+ * expanded lazily into dates. Instead of applying adjusters one step at a time
+ * each rule knows how to jump straight to the first occurrence on or after any date,
+ * so expanding a window far in the future doesn't iterate from the start.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public abstract class Recurrence {
+
+    public static Recurrence everyNDays(LocalDate start, int days) {
+        return new FixedPeriod(start.toEpochDay(), positive(days));
+    }
+
+    public static Recurrence everyNWeeks(LocalDate start, DayOfWeek dayOfWeek, int weeks) {
+        return new FixedPeriod(start.with(nextOrSame(dayOfWeek)).toEpochDay(), 7L * positive(weeks));
+    }
+
+    public static Recurrence lastDayOfEveryNMonths(LocalDate start, int months) {
+        return new MonthEnd(start.toEpochDay(), positive(months), false);
+    }
+
+    public static Recurrence lastWorkingDayOfEveryNMonths(LocalDate start, int months) {
+        return new MonthEnd(start.toEpochDay(), positive(months), true);
+    }
+
+    public static Recurrence everyNWorkingDays(LocalDate start, int workingDays) {
+        LocalDate first = isWorkingDay(start) ? start : adjustWorkingDays(start, 1);
+        return new WorkingDays(first.toEpochDay(), positive(workingDays));
+    }
+
+    //Epoch day of the first occurrence on or after given epoch day
+    abstract long firstOnOrAfter(long epochDay);
+
+    //Epoch day of the occurrence following given one
+    abstract long next(long occurrence);
+
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        return LocalDate.ofEpochDay(firstOnOrAfter(date.toEpochDay()));
+    }
+
+    //Infinite lazy sequence of occurrences starting from given date
+    public Stream<LocalDate> from(LocalDate date) {
+        return LongStream.iterate(firstOnOrAfter(date.toEpochDay()), this::next).mapToObj(LocalDate::ofEpochDay);
+    }
+
+    //Occurrences within [from, to] both inclusive
+    public Stream<LocalDate> between(LocalDate from, LocalDate to) {
+        return epochDaysBetween(from, to).mapToObj(LocalDate::ofEpochDay);
+    }
+
+    public LongStream epochDaysBetween(LocalDate from, LocalDate to) {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(iterator(from.toEpochDay(), to.toEpochDay()),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL), false);
+    }
+
+    public PrimitiveIterator.OfLong iterator(long fromEpochDay, long toEpochDay) {
+        return new PrimitiveIterator.OfLong() {
+            private long current = firstOnOrAfter(fromEpochDay);
+
+            @Override
+            public boolean hasNext() {
+                return current <= toEpochDay;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) throw new NoSuchElementException();
+                long occurrence = current;
+                current = Recurrence.this.next(current);
+                return occurrence;
+            }
+        };
+    }
+
+    //Bulk expansion of a window, e.g. several years of schedule at once
+    public long[] expand(LocalDate from, LocalDate to) {
+        long toEpochDay = to.toEpochDay();
+        long[] occurrences = new long[16];
+        int size = 0;
+        for (long occurrence = firstOnOrAfter(from.toEpochDay()); occurrence <= toEpochDay; occurrence = next(occurrence)) {
+            if (size == occurrences.length) {
+                occurrences = Arrays.copyOf(occurrences, size * 2);
+            }
+            occurrences[size++] = occurrence;
+        }
+        return Arrays.copyOf(occurrences, size);
+    }
+
+    private static int positive(int interval) {
+        if (interval <= 0) throw new UnsupportedOperationException("Recurrence interval should be positive number");
+        return interval;
+    }
+
+    private static class FixedPeriod extends Recurrence {
+        private final long anchor;
+        private final long period;
+
+        FixedPeriod(long anchor, long period) {
+            this.anchor = anchor;
+            this.period = period;
+        }
+
+        @Override
+        long firstOnOrAfter(long epochDay) {
+            if (epochDay <= anchor) return anchor;
+            return anchor + (epochDay - anchor + period - 1) / period * period;
+        }
+
+        @Override
+        long next(long occurrence) {
+            return occurrence + period;
+        }
+    }
+
+    private static class MonthEnd extends Recurrence {
+        private final long start;
+        private final int anchorMonth;
+        private final int months;
+        private final boolean workingDayOnly;
+
+        MonthEnd(long start, int months, boolean workingDayOnly) {
+            this.start = start;
+            this.anchorMonth = EpochDays.monthIndexOf(start);
+            this.months = months;
+            this.workingDayOnly = workingDayOnly;
+        }
+
+        //Last working day of the start month may be before start, then the first occurrence is in the next period
+        @Override
+        long firstOnOrAfter(long epochDay) {
+            epochDay = Math.max(epochDay, start);
+            int monthsAhead = EpochDays.monthIndexOf(epochDay) - anchorMonth;
+            int month = anchorMonth + (monthsAhead + months - 1) / months * months;
+            long occurrence = occurrenceIn(month);
+            return occurrence >= epochDay ? occurrence : occurrenceIn(month + months);
+        }
+
+        @Override
+        long next(long occurrence) {
+            return occurrenceIn(EpochDays.monthIndexOf(occurrence) + months);
+        }
+
+        private long occurrenceIn(int monthIndex) {
+            long lastDay = EpochDays.lastDayOfMonth(monthIndex);
+            if (!workingDayOnly) return lastDay;
+            //Weekend at the end of a month rolls back to Friday of the same month
+            return lastDay - Math.max(0, EpochDays.dayOfWeek(lastDay) - DayOfWeek.FRIDAY.getValue());
+        }
+    }
+
+    private static class WorkingDays extends Recurrence {
+        private final long anchor;
+        private final int workingDays;
+
+        WorkingDays(long anchor, int workingDays) {
+            this.anchor = anchor;
+            this.workingDays = workingDays;
+        }
+
+        @Override
+        long firstOnOrAfter(long epochDay) {
+            if (epochDay <= anchor) return anchor;
+            long workingDaysBefore = EpochDays.workingDaysBetween(anchor + 1, epochDay);
+            long steps = workingDaysBefore / workingDays + 1;
+            return EpochDays.plusWorkingDays(anchor, Math.toIntExact(steps * workingDays));
+        }
+
+        @Override
+        long next(long occurrence) {
+            return EpochDays.plusWorkingDays(occurrence, workingDays);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalTime;
+
+/**
+ * DateTimeHacking
+ *
+ * Time of day arithmetic on primitive seconds of day (0 - 86399), the numbers
+ * {@link LocalTime#toSecondOfDay()} produces. Unlike {@link DateTimeFunctions#addSecondsToGivenLocalTime}
+ * and {@link DateTimeFunctions#addMinutesToGivenLocalTime}, which silently wrap at midnight,
+ * every shift also tells how many days it moved over, so time columns can be shifted
+ * together with their epoch day columns.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class SecondsOfDay {
+
+    public static final int SECONDS_PER_DAY = 86400;
+
+    private SecondsOfDay() {}
+
+    public static int of(LocalTime time) {
+        return time.toSecondOfDay();
+    }
+
+    public static LocalTime toLocalTime(int secondOfDay) {
+        return LocalTime.ofSecondOfDay(secondOfDay);
+    }
+
+    //Same wrapped time as LocalTime.plusSeconds gives
+    public static int plusSeconds(int secondOfDay, long seconds) {
+        return (int) Math.floorMod(secondOfDay + seconds, (long) SECONDS_PER_DAY);
+    }
+
+    //Days crossed by the shift: 1 if it goes over midnight, -1 if back over previous midnight
+    public static long dayCarry(int secondOfDay, long seconds) {
+        return Math.floorDiv(secondOfDay + seconds, (long) SECONDS_PER_DAY);
+    }
+
+    //Shifts every time by the same number of seconds. Day carries may be null if not needed.
+    public static void plusSeconds(int[] secondsOfDay, long seconds, int[] shifted, int[] dayCarries) {
+        int days = Math.toIntExact(Math.floorDiv(seconds, (long) SECONDS_PER_DAY));
+        int remainder = (int) Math.floorMod(seconds, (long) SECONDS_PER_DAY);
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            int sum = secondsOfDay[i] + remainder;
+            int overflow = sum >= SECONDS_PER_DAY ? 1 : 0;
+            shifted[i] = sum - overflow * SECONDS_PER_DAY;
+            if (dayCarries != null) dayCarries[i] = days + overflow;
+        }
+    }
+
+    //Shifts every time by its own number of seconds, e.g. shift lengths
+    public static void plusSeconds(int[] secondsOfDay, int[] seconds, int[] shifted, int[] dayCarries) {
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            long sum = (long) secondsOfDay[i] + seconds[i];
+            shifted[i] = (int) Math.floorMod(sum, (long) SECONDS_PER_DAY);
+            if (dayCarries != null) dayCarries[i] = (int) Math.floorDiv(sum, (long) SECONDS_PER_DAY);
+        }
+    }
+
+    public static void plusMinutes(int[] secondsOfDay, long minutes, int[] shifted, int[] dayCarries) {
+        plusSeconds(secondsOfDay, Math.multiplyExact(minutes, 60L), shifted, dayCarries);
+    }
+
+    //Shifts date/times kept as epoch day and second of day columns in place
+    public static void plusSeconds(long[] epochDays, int[] secondsOfDay, long seconds) {
+        long days = Math.floorDiv(seconds, (long) SECONDS_PER_DAY);
+        int remainder = (int) Math.floorMod(seconds, (long) SECONDS_PER_DAY);
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            int sum = secondsOfDay[i] + remainder;
+            int overflow = sum >= SECONDS_PER_DAY ? 1 : 0;
+            secondsOfDay[i] = sum - overflow * SECONDS_PER_DAY;
+            epochDays[i] += days + overflow;
+        }
+    }
+
+    public static int[] of(LocalTime[] times) {
+        int[] secondsOfDay = new int[times.length];
+        for (int i = 0; i < times.length; i++) {
+            secondsOfDay[i] = times[i].toSecondOfDay();
+        }
+        return secondsOfDay;
+    }
+}
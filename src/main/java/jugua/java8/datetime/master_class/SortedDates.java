@@ -0,0 +1,148 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Binary search primitives over sorted epoch day / epoch second columns, so questions like
+ * "all rows between two dates" or "first row on the next working day" take O(log n)
+ * instead of comparing every row with {@link LocalDate#isAfter}.
+ *
+ * Bounds follow C++ conventions: lower bound is the first index with value >= key,
+ * upper bound is the first index with value > key.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public final class SortedDates {
+
+    private SortedDates() {}
+
+    //Rows [from, to) of a sorted column
+    public static class Slice {
+        private final int from;
+        private final int to;
+
+        Slice(int from, int to) {
+            this.from = from;
+            this.to = Math.max(from, to);
+        }
+
+        public int from() {
+            return from;
+        }
+
+        public int to() {
+            return to;
+        }
+
+        public int size() {
+            return to - from;
+        }
+
+        public boolean isEmpty() {
+            return from == to;
+        }
+    }
+
+    public static int lowerBound(long[] sorted, long key) {
+        return lowerBound(sorted, 0, sorted.length, key);
+    }
+
+    public static int lowerBound(long[] sorted, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid] < key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    public static int upperBound(long[] sorted, long key) {
+        return upperBound(sorted, 0, sorted.length, key);
+    }
+
+    public static int upperBound(long[] sorted, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (sorted[mid] <= key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    //Lower bound searched by doubling steps from given index, cheap when key is close to it
+    public static int exponentialSearch(long[] sorted, int from, long key) {
+        int bound = 1;
+        int lo = from;
+        while (from + bound < sorted.length && sorted[from + bound - 1] < key) {
+            lo = from + bound;
+            bound <<= 1;
+        }
+        return lowerBound(sorted, lo, Math.min(sorted.length, from + bound), key);
+    }
+
+    //Rows with values within [fromKey, toKey] both inclusive
+    public static Slice slice(long[] sorted, long fromKey, long toKey) {
+        int from = lowerBound(sorted, fromKey);
+        return new Slice(from, upperBound(sorted, from, sorted.length, toKey));
+    }
+
+    //Rows of epoch day column falling on dates within [from, to]
+    public static Slice slice(long[] sortedEpochDays, LocalDate from, LocalDate to) {
+        if (daysDiff(from, to) < 0) return new Slice(0, 0);
+        return slice(sortedEpochDays, from.toEpochDay(), to.toEpochDay());
+    }
+
+    //Rows of epoch second column falling on dates within [from, to] in given zone
+    public static Slice slice(long[] sortedEpochSeconds, LocalDate from, LocalDate to, ZoneId zone) {
+        if (daysDiff(from, to) < 0) return new Slice(0, 0);
+        long fromSecond = from.atStartOfDay(zone).toEpochSecond();
+        long toSecond = addDaysToGivenLocalDate(to, 1).atStartOfDay(zone).toEpochSecond() - 1;
+        return slice(sortedEpochSeconds, fromSecond, toSecond);
+    }
+
+    //Rows of epoch day column falling on the same month as given date
+    public static Slice monthOf(long[] sortedEpochDays, LocalDate date) {
+        return slice(sortedEpochDays, date.withDayOfMonth(1), adjustDateToLastDayOfAMonth(date));
+    }
+
+    //Rows of epoch day column after given date up to and including its Nth working day ahead
+    public static Slice workingDaysAfter(long[] sortedEpochDays, LocalDate date, int workingDays) {
+        return slice(sortedEpochDays, addDaysToGivenLocalDate(date, 1), date.with(workingDaysAhead(workingDays)));
+    }
+
+    //Index of the first row on or after the next working day after given date
+    public static int firstOnOrAfterNextWorkingDay(long[] sortedEpochDays, LocalDate date) {
+        return lowerBound(sortedEpochDays, EpochDays.plusWorkingDays(date.toEpochDay(), 1));
+    }
+
+    //Forward only cursor over sorted column for monotonically growing keys, e.g. merging with a stream
+    public static class Cursor {
+        private final long[] sorted;
+        private int position;
+
+        public Cursor(long[] sorted) {
+            this.sorted = sorted;
+        }
+
+        public int position() {
+            return position;
+        }
+
+        //Moves to the first row with value >= key, keys smaller than previous ones don't move cursor back
+        public int advanceTo(long key) {
+            if (position < sorted.length && sorted[position] < key) {
+                position = exponentialSearch(sorted, position, key);
+            }
+            return position;
+        }
+
+        public int advanceTo(LocalDate date) {
+            return advanceTo(date.toEpochDay());
+        }
+    }
+}
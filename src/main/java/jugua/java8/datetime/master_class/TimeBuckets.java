@@ -0,0 +1,190 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.stream.IntStream;
+
+/**
+ * DateTimeHacking
+ *
+ * Buckets instants (epoch seconds) into calendar periods of given time zone
+ * and aggregates values per bucket. Works on primitive columns in one pass
+ * without creating any objects per row, which makes it usable on millions of
+ * timestamps where truncating every {@link java.time.ZonedDateTime} to a date
+ * would be too expensive.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class TimeBuckets {
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int ROWS_PER_TASK = 1 << 16;
+
+    public enum Bucket {
+        //Bucket id is epoch day
+        DAY {
+            @Override
+            public long of(long epochDay) {
+                return epochDay;
+            }
+
+            @Override
+            public LocalDate startOf(long bucketId) {
+                return LocalDate.ofEpochDay(bucketId);
+            }
+        },
+        //Bucket id is number of ISO week (starting on Monday) since epoch
+        ISO_WEEK {
+            @Override
+            public long of(long epochDay) {
+                return Math.floorDiv(epochDay + 3, 7L);
+            }
+
+            @Override
+            public LocalDate startOf(long bucketId) {
+                return LocalDate.ofEpochDay(bucketId * 7 - 3);
+            }
+        },
+        //Bucket id is number of months since year 0
+        MONTH {
+            @Override
+            public long of(long epochDay) {
+                return EpochDays.monthIndexOf(epochDay);
+            }
+
+            @Override
+            public LocalDate startOf(long bucketId) {
+                return LocalDate.of((int) Math.floorDiv(bucketId, 12L), (int) Math.floorMod(bucketId, 12L) + 1, 1);
+            }
+        },
+        //Bucket id is epoch day of a working day, weekend goes to following Monday
+        WORKING_DAY {
+            @Override
+            public long of(long epochDay) {
+                int dayOfWeek = EpochDays.dayOfWeek(epochDay);
+                return dayOfWeek > DayOfWeek.FRIDAY.getValue() ? epochDay + 8 - dayOfWeek : epochDay;
+            }
+
+            @Override
+            public LocalDate startOf(long bucketId) {
+                return LocalDate.ofEpochDay(bucketId);
+            }
+        };
+
+        public abstract long of(long epochDay);
+
+        public abstract LocalDate startOf(long bucketId);
+    }
+
+    public static class Aggregates {
+        private final Bucket bucket;
+        private final long firstBucketId;
+        private final long[] counts;
+        private final long[] sums;
+
+        private Aggregates(Bucket bucket, long firstBucketId, int size) {
+            this.bucket = bucket;
+            this.firstBucketId = firstBucketId;
+            this.counts = new long[size];
+            this.sums = new long[size];
+        }
+
+        //Number of buckets between first and last non empty ones, empty buckets in between included
+        public int size() {
+            return counts.length;
+        }
+
+        public long bucketId(int index) {
+            return firstBucketId + index;
+        }
+
+        public LocalDate bucketStart(int index) {
+            return bucket.startOf(bucketId(index));
+        }
+
+        public long count(int index) {
+            return counts[index];
+        }
+
+        public long sum(int index) {
+            return sums[index];
+        }
+
+        private Aggregates merge(Aggregates other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+                sums[i] += other.sums[i];
+            }
+            return this;
+        }
+
+        private Aggregates trimmed() {
+            int first = 0;
+            int last = counts.length - 1;
+            while (first <= last && counts[first] == 0) first++;
+            while (last >= first && counts[last] == 0) last--;
+            Aggregates trimmed = new Aggregates(bucket, firstBucketId + first, last - first + 1);
+            System.arraycopy(counts, first, trimmed.counts, 0, trimmed.counts.length);
+            System.arraycopy(sums, first, trimmed.sums, 0, trimmed.sums.length);
+            return trimmed;
+        }
+    }
+
+    public static void bucketIds(long[] epochSeconds, ZoneId zone, Bucket bucket, long[] bucketIds) {
+        ZoneOffsetWindow offsets = new ZoneOffsetWindow(zone);
+        for (int i = 0; i < epochSeconds.length; i++) {
+            bucketIds[i] = bucketOf(epochSeconds[i], offsets, bucket);
+        }
+    }
+
+    public static Aggregates aggregate(long[] epochSeconds, long[] values, ZoneId zone, Bucket bucket) {
+        Aggregates aggregates = emptyAggregates(epochSeconds, zone, bucket);
+        accumulate(epochSeconds, values, 0, epochSeconds.length, zone, aggregates);
+        return aggregates.trimmed();
+    }
+
+    //Same as aggregate, but chunks of rows are aggregated on all cores and merged afterwards
+    public static Aggregates aggregateInParallel(long[] epochSeconds, long[] values, ZoneId zone, Bucket bucket) {
+        Aggregates template = emptyAggregates(epochSeconds, zone, bucket);
+        int tasks = (epochSeconds.length + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+        return IntStream.range(0, tasks).parallel()
+                .mapToObj(task -> {
+                    Aggregates partial = new Aggregates(bucket, template.firstBucketId, template.size());
+                    accumulate(epochSeconds, values, task * ROWS_PER_TASK,
+                            Math.min(epochSeconds.length, (task + 1) * ROWS_PER_TASK), zone, partial);
+                    return partial;
+                })
+                .reduce(Aggregates::merge)
+                .orElse(template)
+                .trimmed();
+    }
+
+    private static long bucketOf(long epochSecond, ZoneOffsetWindow offsets, Bucket bucket) {
+        return bucket.of(Math.floorDiv(offsets.toLocalEpochSecond(epochSecond), (long) SECONDS_PER_DAY));
+    }
+
+    private static void accumulate(long[] epochSeconds, long[] values, int from, int to, ZoneId zone, Aggregates aggregates) {
+        ZoneOffsetWindow offsets = new ZoneOffsetWindow(zone);
+        for (int i = from; i < to; i++) {
+            int index = (int) (bucketOf(epochSeconds[i], offsets, aggregates.bucket) - aggregates.firstBucketId);
+            aggregates.counts[index]++;
+            aggregates.sums[index] += values[i];
+        }
+    }
+
+    private static Aggregates emptyAggregates(long[] epochSeconds, ZoneId zone, Bucket bucket) {
+        if (epochSeconds.length == 0) return new Aggregates(bucket, 0, 0);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long epochSecond : epochSeconds) {
+            min = Math.min(min, epochSecond);
+            max = Math.max(max, epochSecond);
+        }
+        ZoneOffsetWindow offsets = new ZoneOffsetWindow(zone);
+        //Wall clock goes back on overlaps, so later instant may fall into previous bucket
+        long firstBucketId = bucketOf(min, offsets, bucket) - 1;
+        long lastBucketId = bucketOf(max, offsets, bucket) + 1;
+        return new Aggregates(bucket, firstBucketId, Math.toIntExact(lastBucketId - firstBucketId + 1));
+    }
+}
@@ -0,0 +1,253 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.*;
+import java.util.function.Consumer;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.adjustWorkingDays;
+
+/**
+ * DateTimeHacking
+ *
+ * Scheduler of deadlines in epoch seconds built as hierarchical timing wheel: level L has
+ * 64 slots of 64^L seconds each, and a deadline sits on the lowest level where it differs
+ * from current time, so scheduling and cancelling are O(1) however many deadlines are pending.
+ * Slots of higher levels are redistributed down as time reaches them, and occupied slots
+ * are tracked in one bit mask per level, so empty stretches of time are skipped in one step.
+ *
+ * Time comes from given clock (FakeClock in tests), and deadlines fire when {@link #advance}
+ * is called, e.g. by a thread polling every second. Deadlines can be given as business
+ * rules like "5 working days from a date at 09:00 in Kiev". Deadlines in the past fire on
+ * the next advance. Deadlines before 1970 are not supported. Exception thrown by a callback
+ * is passed to the caller of advance, and deadlines not fired yet fire on the next advance.
+ *
+ * Not thread safe.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class TimingWheelScheduler<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    //11 levels of 6 bits cover all positive longs
+    private static final int LEVELS = 11;
+
+    private final Clock clock;
+    private final Bucket<T>[][] wheels = newWheels();
+    private final long[] occupied = new long[LEVELS];
+    private final Bucket<T> due = new Bucket<>(null, -1, -1);
+    private long current;
+    private int size;
+
+    public TimingWheelScheduler(Clock clock) {
+        this.clock = clock;
+        this.current = now();
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new Bucket<>(occupied, level, slot);
+            }
+        }
+    }
+
+    //Handle of a scheduled deadline
+    public class Timeout {
+        private final long deadline;
+        private final T task;
+        private Bucket<T> bucket;
+        private Timeout previous;
+        private Timeout next;
+        private boolean cancelled;
+
+        private Timeout(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isExpired() {
+            return !cancelled && bucket == null;
+        }
+
+        //Returns false if deadline has already fired or was cancelled before
+        public boolean cancel() {
+            if (bucket == null) return false;
+            bucket.remove(this);
+            cancelled = true;
+            size--;
+            return true;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long currentEpochSecond() {
+        return current;
+    }
+
+    public Timeout schedule(long deadlineEpochSecond, T task) {
+        if (deadlineEpochSecond < 0) throw new UnsupportedOperationException("Deadlines before 1970 are not supported");
+        Timeout timeout = new Timeout(deadlineEpochSecond, task);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    //E.g. deadline in user's zone made by transformToNewTimeZone
+    public Timeout schedule(ZonedDateTime deadline, T task) {
+        return schedule(deadline.toEpochSecond(), task);
+    }
+
+    //Deadline at given time of the Nth working day after date in given zone, gaps and overlaps
+    //resolved like ZonedDateTime.of does
+    public Timeout scheduleInWorkingDays(LocalDate date, int workingDays, LocalTime time, ZoneId zone, T task) {
+        return schedule(ZonedDateTime.of(adjustWorkingDays(date, workingDays).atTime(time), zone), task);
+    }
+
+    //Fires all deadlines up to current clock time, returns number of fired ones
+    public int advance(Consumer<? super T> onDeadline) {
+        return advanceTo(now(), onDeadline);
+    }
+
+    public int advanceTo(long epochSecond, Consumer<? super T> onDeadline) {
+        int fired = fire(due, onDeadline);
+        while (current < epochSecond) {
+            long next = nextOccupiedTime();
+            if (next > epochSecond) {
+                current = epochSecond;
+                break;
+            }
+            current = next;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((current & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(wheels[level][digit(current, level)]);
+                }
+            }
+            fired += fire(wheels[0][digit(current, 0)], onDeadline);
+            fired += fire(due, onDeadline);
+        }
+        return fired;
+    }
+
+    private long now() {
+        return Math.floorDiv(clock.millis(), 1000L);
+    }
+
+    private void place(Timeout timeout) {
+        if (timeout.deadline <= current) {
+            due.add(timeout);
+            return;
+        }
+        int level = (63 - Long.numberOfLeadingZeros(timeout.deadline ^ current)) / SLOT_BITS;
+        wheels[level][digit(timeout.deadline, level)].add(timeout);
+    }
+
+    private static int digit(long epochSecond, int level) {
+        return (int) (epochSecond >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+
+    //Earliest time after current when an occupied slot is reached, Long.MAX_VALUE if there is none
+    private long nextOccupiedTime() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; level++) {
+            long later = occupied[level] & (-2L << digit(current, level));
+            if (later == 0) continue;
+            int parentShift = SLOT_BITS * (level + 1);
+            long parentStart = parentShift >= 64 ? 0 : current >>> parentShift << parentShift;
+            next = Math.min(next, parentStart | (long) Long.numberOfTrailingZeros(later) << (SLOT_BITS * level));
+        }
+        return next;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Bucket<T>[][] newWheels() {
+        return (Bucket<T>[][]) new Bucket<?>[LEVELS][SLOTS];
+    }
+
+    private void cascade(Bucket<T> bucket) {
+        for (Timeout timeout = bucket.clear(); timeout != null; ) {
+            Timeout next = timeout.next;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private int fire(Bucket<T> bucket, Consumer<? super T> onDeadline) {
+        Timeout first = bucket.clear();
+        if (first == null) return 0;
+        //Detached timeouts are popped one by one, so callbacks can still cancel the ones not fired yet,
+        //while timeouts they schedule for the past wait for the next fire of due bucket
+        Bucket<T> firing = new Bucket<>(null, -1, -1);
+        for (Timeout timeout = first; timeout != null; timeout = timeout.next) {
+            timeout.bucket = firing;
+        }
+        firing.head = first;
+        int fired = 0;
+        try {
+            for (Timeout timeout = firing.head; timeout != null; timeout = firing.head, fired++) {
+                firing.remove(timeout);
+                size--;
+                onDeadline.accept(timeout.task);
+            }
+        } finally {
+            //Callback has thrown, the rest of the batch fires on the next advance
+            for (Timeout timeout = firing.head; timeout != null; timeout = firing.head) {
+                firing.remove(timeout);
+                due.add(timeout);
+            }
+        }
+        return fired;
+    }
+
+    //Doubly linked list of timeouts of one slot, marks occupancy of wheel slots in owner's masks
+    private static final class Bucket<T> {
+        private final long[] occupied;
+        private final int level;
+        private final int slot;
+        private TimingWheelScheduler<T>.Timeout head;
+
+        Bucket(long[] occupied, int level, int slot) {
+            this.occupied = occupied;
+            this.level = level;
+            this.slot = slot;
+        }
+
+        void add(TimingWheelScheduler<T>.Timeout timeout) {
+            timeout.bucket = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) head.previous = timeout;
+            head = timeout;
+            if (level >= 0) occupied[level] |= 1L << slot;
+        }
+
+        void remove(TimingWheelScheduler<T>.Timeout timeout) {
+            if (timeout.previous != null) timeout.previous.next = timeout.next;
+            else head = timeout.next;
+            if (timeout.next != null) timeout.next.previous = timeout.previous;
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+            if (head == null && level >= 0) occupied[level] &= ~(1L << slot);
+        }
+
+        //Detaches and returns all timeouts, linked by next
+        TimingWheelScheduler<T>.Timeout clear() {
+            TimingWheelScheduler<T>.Timeout first = head;
+            head = null;
+            if (level >= 0) occupied[level] &= ~(1L << slot);
+            return first;
+        }
+    }
+}
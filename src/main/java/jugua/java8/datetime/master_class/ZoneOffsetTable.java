@@ -0,0 +1,200 @@
+package jugua.java8.datetime.master_class;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.*;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Zone rules compiled for a range of years into plain sorted arrays: transition instants,
+ * wall clock times where offset changes and offsets in between. Instant to offset and
+ * wall clock time to instant conversions become a single binary search over primitives,
+ * falling back to {@link ZoneRules} outside of compiled years.
+ *
+ * Tables are compiled ahead of time into a resource file and mapped back on startup:
+ *
+ *   java -cp classes jugua.java8.datetime.master_class.ZoneOffsetTable zones.tbl 2000 2040 Europe/London Europe/Kiev
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ZoneOffsetTable {
+
+    private static final int MAGIC = 0x5A4F5442;
+
+    private final String zoneId;
+    private final long validFrom;
+    private final long validTo;
+    private final long[] transitions;
+    //Wall clock time (as UTC epoch second) from which offset after transition applies
+    private final long[] localBoundaries;
+    //offsets[i] is in effect before transitions[i], last one after all of them
+    private final int[] offsets;
+    private ZoneRules rules;
+
+    private ZoneOffsetTable(String zoneId, long validFrom, long validTo, long[] transitions, long[] localBoundaries, int[] offsets) {
+        this.zoneId = zoneId;
+        this.validFrom = validFrom;
+        this.validTo = validTo;
+        this.transitions = transitions;
+        this.localBoundaries = localBoundaries;
+        this.offsets = offsets;
+    }
+
+    //Compiles transitions of years [fromYear, toYear]
+    public static ZoneOffsetTable compile(ZoneId zone, int fromYear, int toYear) {
+        ZoneRules rules = zone.getRules();
+        long validFrom = LocalDate.of(fromYear, 1, 1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) - 86400;
+        long validTo = LocalDate.of(toYear + 1, 1, 1).atStartOfDay().toEpochSecond(ZoneOffset.UTC) + 86400;
+        List<ZoneOffsetTransition> found = new ArrayList<>();
+        for (ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(validFrom));
+             transition != null && transition.toEpochSecond() < validTo;
+             transition = rules.nextTransition(transition.getInstant())) {
+            found.add(transition);
+        }
+        long[] transitions = new long[found.size()];
+        long[] localBoundaries = new long[found.size()];
+        int[] offsets = new int[found.size() + 1];
+        offsets[0] = rules.getOffset(Instant.ofEpochSecond(validFrom)).getTotalSeconds();
+        for (int i = 0; i < transitions.length; i++) {
+            ZoneOffsetTransition transition = found.get(i);
+            transitions[i] = transition.toEpochSecond();
+            //Gaps shift forward and overlaps keep earlier offset, so offset before lasts till the later wall clock time
+            localBoundaries[i] = transitions[i] + Math.max(transition.getOffsetBefore().getTotalSeconds(), transition.getOffsetAfter().getTotalSeconds());
+            offsets[i + 1] = transition.getOffsetAfter().getTotalSeconds();
+        }
+        ZoneOffsetTable table = new ZoneOffsetTable(zone.getId(), validFrom, validTo, transitions, localBoundaries, offsets);
+        table.rules = rules;
+        return table;
+    }
+
+    public String zoneId() {
+        return zoneId;
+    }
+
+    public int offsetSecondsAt(long epochSecond) {
+        if (epochSecond < validFrom || epochSecond >= validTo) {
+            return rules().getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+        return offsets[SortedDates.upperBound(transitions, epochSecond)];
+    }
+
+    //Wall clock time in this zone of given instant, what transformToNewTimeZone(dateTime, zoneId).toLocalDateTime() gives
+    public LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.ofTotalSeconds(offsetSecondsAt(epochSecond)));
+    }
+
+    //Instant of wall clock time in this zone resolved same way as ZonedDateTime.of(dateTime, zone)
+    public long toEpochSecond(LocalDateTime dateTime) {
+        return toEpochSecond(dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    //Same for wall clock time given as UTC epoch second
+    public long toEpochSecond(long localSecond) {
+        if (localSecond - 86400 < validFrom || localSecond + 86400 >= validTo) {
+            return ZonedDateTime.of(LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC), ZoneId.of(zoneId)).toEpochSecond();
+        }
+        return localSecond - offsets[SortedDates.upperBound(localBoundaries, localSecond)];
+    }
+
+    //Checks table against zone rules around every compiled transition
+    public void verify() {
+        ZoneRules rules = ZoneId.of(zoneId).getRules();
+        for (int i = 0; i < transitions.length; i++) {
+            for (long epochSecond = transitions[i] - 7200; epochSecond <= transitions[i] + 7200; epochSecond += 900) {
+                Instant instant = Instant.ofEpochSecond(epochSecond);
+                check(offsetSecondsAt(epochSecond) == rules.getOffset(instant).getTotalSeconds(), instant);
+                LocalDateTime dateTime = LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+                check(toEpochSecond(dateTime) == ZonedDateTime.of(dateTime, ZoneId.of(zoneId)).toEpochSecond(), dateTime);
+            }
+        }
+    }
+
+    private void check(boolean matches, Object at) {
+        if (!matches) throw new DateTimeException("Offset table of " + zoneId + " differs from zone rules at " + at);
+    }
+
+    private ZoneRules rules() {
+        if (rules == null) {
+            rules = ZoneId.of(zoneId).getRules();
+        }
+        return rules;
+    }
+
+    public static void write(Path file, Collection<ZoneOffsetTable> tables) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file); DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeInt(MAGIC);
+            out.writeInt(tables.size());
+            for (ZoneOffsetTable table : tables) {
+                byte[] zoneId = table.zoneId.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(zoneId.length);
+                out.write(zoneId);
+                out.writeLong(table.validFrom);
+                out.writeLong(table.validTo);
+                out.writeInt(table.transitions.length);
+                for (int i = 0; i < table.transitions.length; i++) {
+                    out.writeLong(table.transitions[i]);
+                    out.writeLong(table.localBoundaries[i]);
+                    out.writeInt(table.offsets[i]);
+                }
+                out.writeInt(table.offsets[table.transitions.length]);
+            }
+        }
+    }
+
+    public static Map<String, ZoneOffsetTable> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) throw new IOException(file + " is not a zone offset table file");
+            Map<String, ZoneOffsetTable> tables = new HashMap<>();
+            for (int count = buffer.getInt(); count > 0; count--) {
+                ZoneOffsetTable table = read(buffer);
+                tables.put(table.zoneId, table);
+            }
+            return tables;
+        }
+    }
+
+    private static ZoneOffsetTable read(ByteBuffer buffer) {
+        byte[] zoneId = new byte[buffer.getInt()];
+        buffer.get(zoneId);
+        long validFrom = buffer.getLong();
+        long validTo = buffer.getLong();
+        int size = buffer.getInt();
+        long[] transitions = new long[size];
+        long[] localBoundaries = new long[size];
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            transitions[i] = buffer.getLong();
+            localBoundaries[i] = buffer.getLong();
+            offsets[i] = buffer.getInt();
+        }
+        offsets[size] = buffer.getInt();
+        return new ZoneOffsetTable(new String(zoneId, StandardCharsets.UTF_8), validFrom, validTo, transitions, localBoundaries, offsets);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: ZoneOffsetTable <file> <fromYear> <toYear> <zone>...");
+            return;
+        }
+        List<ZoneOffsetTable> tables = new ArrayList<>();
+        for (String zoneId : Arrays.asList(args).subList(3, args.length)) {
+            ZoneOffsetTable table = compile(ZoneId.of(zoneId), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            table.verify();
+            tables.add(table);
+        }
+        write(Paths.get(args[0]), tables);
+    }
+}
@@ -0,0 +1,62 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * DateTimeHacking
+ *
+ * Remembers offset of a zone between two neighbour transitions, so consecutive
+ * lookups of close instants are answered with two comparisons instead of
+ * {@link ZoneRules} search. Rules are consulted again only when an instant leaves
+ * the window, which happens about twice a year for zones with daylight savings.
+ *
+ * Keeps mutable state, so every thread needs its own window.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ZoneOffsetWindow {
+
+    private final ZoneRules rules;
+    private long validFrom = Long.MAX_VALUE;
+    private long validTo = Long.MIN_VALUE;
+    private int offsetSeconds;
+
+    public ZoneOffsetWindow(ZoneId zone) {
+        this.rules = zone.getRules();
+        if (rules.isFixedOffset()) {
+            validFrom = Long.MIN_VALUE;
+            validTo = Long.MAX_VALUE;
+            offsetSeconds = rules.getOffset(Instant.EPOCH).getTotalSeconds();
+        }
+    }
+
+    public int offsetSecondsAt(long epochSecond) {
+        if (epochSecond < validFrom || epochSecond >= validTo) {
+            moveTo(epochSecond);
+        }
+        return offsetSeconds;
+    }
+
+    public ZoneOffset offsetAt(long epochSecond) {
+        return ZoneOffset.ofTotalSeconds(offsetSecondsAt(epochSecond));
+    }
+
+    //Epoch second of the same wall clock time in UTC, i.e. what LocalDateTime#toEpochSecond(UTC) would give
+    public long toLocalEpochSecond(long epochSecond) {
+        return epochSecond + offsetSecondsAt(epochSecond);
+    }
+
+    private void moveTo(long epochSecond) {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        offsetSeconds = rules.getOffset(instant).getTotalSeconds();
+        //Transition lookups are exclusive, so ask for the ones around instant + 1 second
+        ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+        ZoneOffsetTransition next = rules.nextTransition(instant);
+        validFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+        validTo = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+    }
+}
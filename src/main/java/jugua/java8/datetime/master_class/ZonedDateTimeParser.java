@@ -0,0 +1,110 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * DateTimeHacking
+ *
+ * Reusable replacement of {@link DateTimeFunctions#aNewZonedDateTime} for parsing lots of
+ * date/time strings of one pattern in one zone. Pattern is compiled once, see {@link CompiledDatePattern}.
+ *
+ * {@link #parse} and {@link #of} return ZonedDateTime objects, which JDK always validates
+ * against zone rules, so they only save on the formatter. {@link #parseToEpochSecond} and
+ * {@link #toEpochSecond} skip zone rules whenever possible:
+ * - fixed offset zones (UTC, +02:00, Etc/GMT-2...) always have the same single offset;
+ * - region zones remember range of wall clock times between two neighbour transitions
+ *   where there is exactly one valid offset, so only times outside of it (other years,
+ *   gaps and overlaps) are resolved by zone rules.
+ *
+ * Results are exactly the same as {@link ZonedDateTime#of(LocalDateTime, ZoneId)} gives,
+ * including earlier offset for overlaps and shifting times in gaps forward.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ZonedDateTimeParser {
+
+    private final CompiledDatePattern pattern;
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final ZoneOffset fixedOffset;
+    private volatile Window window = new Window(Long.MAX_VALUE, Long.MIN_VALUE, ZoneOffset.UTC);
+
+    public ZonedDateTimeParser(String dateTimeFormat, ZoneId zone) {
+        this.pattern = CompiledDatePattern.compile(dateTimeFormat);
+        this.formatter = pattern.formatter();
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fixedOffset = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+    }
+
+    public ZonedDateTime parse(String dateTime) {
+        return of(LocalDateTime.parse(dateTime, formatter));
+    }
+
+    public long parseToEpochSecond(String dateTime) {
+        return toEpochSecond(pattern.parseToEpochSecond(dateTime));
+    }
+
+    public ZonedDateTime of(LocalDateTime dateTime) {
+        return ZonedDateTime.of(dateTime, zone);
+    }
+
+    public long toEpochSecond(LocalDateTime dateTime) {
+        ZoneOffset offset = uniqueOffsetOf(dateTime);
+        if (offset == null) return ZonedDateTime.of(dateTime, zone).toEpochSecond();
+        return dateTime.toEpochSecond(offset);
+    }
+
+    //Same for wall clock time given as UTC epoch second, no objects are created inside the remembered window
+    public long toEpochSecond(long localSecond) {
+        if (fixedOffset != null) return localSecond - fixedOffset.getTotalSeconds();
+        Window current = window;
+        if (current.contains(localSecond)) return localSecond - current.offset.getTotalSeconds();
+        return toEpochSecond(LocalDateTime.ofEpochSecond(localSecond, 0, ZoneOffset.UTC));
+    }
+
+    //Offset if wall clock time has just one, null for gaps and overlaps
+    private ZoneOffset uniqueOffsetOf(LocalDateTime dateTime) {
+        if (fixedOffset != null) return fixedOffset;
+        long localSecond = dateTime.toEpochSecond(ZoneOffset.UTC);
+        Window current = window;
+        if (current.contains(localSecond)) return current.offset;
+        ZoneOffsetTransition transition = rules.getTransition(dateTime);
+        if (transition != null) return null;
+        window = current = Window.around(rules, dateTime);
+        return current.offset;
+    }
+
+    //Wall clock times [from, to) as UTC epoch seconds which have single valid offset
+    private static class Window {
+        private final long from;
+        private final long to;
+        private final ZoneOffset offset;
+
+        private Window(long from, long to, ZoneOffset offset) {
+            this.from = from;
+            this.to = to;
+            this.offset = offset;
+        }
+
+        boolean contains(long localSecond) {
+            return localSecond >= from && localSecond < to;
+        }
+
+        static Window around(ZoneRules rules, LocalDateTime dateTime) {
+            ZoneOffset offset = rules.getOffset(dateTime);
+            Instant instant = dateTime.toInstant(offset);
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            long from = previous == null ? Long.MIN_VALUE : previous.toEpochSecond()
+                    + Math.max(previous.getOffsetBefore().getTotalSeconds(), previous.getOffsetAfter().getTotalSeconds());
+            long to = next == null ? Long.MAX_VALUE : next.toEpochSecond()
+                    + Math.min(next.getOffsetBefore().getTotalSeconds(), next.getOffsetAfter().getTotalSeconds());
+            return new Window(from, to, offset);
+        }
+    }
+}
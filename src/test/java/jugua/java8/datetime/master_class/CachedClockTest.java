@@ -0,0 +1,129 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Drives cached clock by fake one to check snapshots taken on every tick
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class CachedClockTest {
+
+    private static final ZoneId KIEV = ZoneId.of("Europe/Kiev");
+    private static final long HOUR = 3600000;
+
+    @Test
+    public void shouldServeSnapshotTakenOnLastTick() throws Exception {
+        FakeClock source = new FakeClock(stringToDateWithTime("31/12/2013 23:59:59", "dd/MM/yyyy HH:mm:ss"), KIEV);
+        try (CachedClock clock = new CachedClock(source, HOUR, "dd/MM/yyyy HH:mm:ss")) {
+            assertThat(currentLocalDate(clock), is(aLocalDate(2013, 12, 31)));
+            assertThat(clock.format("dd/MM/yyyy HH:mm:ss"), is("31/12/2013 23:59:59"));
+
+            source.advance(Duration.ofSeconds(2));
+            assertThat(clock.millis(), is(source.millis() - 2000));
+            clock.tick();
+            assertThat(clock.millis(), is(source.millis()));
+            assertThat(currentLocalDate(clock), is(aLocalDate(2014, 1, 1)));
+            assertThat(currentLocalDateTime(clock), is(LocalDateTime.now(source)));
+            assertThat(currentZonedDateTime(clock), is(ZonedDateTime.now(source)));
+            assertThat(clock.format("dd/MM/yyyy HH:mm:ss"), is("01/01/2014 00:00:01"));
+            assertThat(clock.format("yyyy-MM-dd"), is("2014-01-01"));
+            assertThat(currentDate(clock).getTime(), is(source.millis()));
+        }
+    }
+
+    @Test
+    public void shouldReadSameTimeInOtherZones() throws Exception {
+        FakeClock source = new FakeClock(Instant.parse("2014-03-30T00:30:00Z"), KIEV);
+        try (CachedClock clock = new CachedClock(source, HOUR)) {
+            Clock utc = clock.withZone(ZoneOffset.UTC);
+            assertThat(utc.instant(), is(clock.instant()));
+            assertThat(currentLocalDateTime(utc), is(LocalDateTime.of(2014, 3, 30, 0, 30)));
+            //Kiev moved clocks from 03:00 to 04:00 at 01:00 UTC
+            assertThat(currentLocalDateTime(clock), is(LocalDateTime.of(2014, 3, 30, 2, 30)));
+            source.advance(Duration.ofHours(1));
+            clock.tick();
+            assertThat(currentLocalDateTime(clock), is(LocalDateTime.of(2014, 3, 30, 4, 30)));
+            assertThat(clock.withZone(KIEV), is((Clock) clock));
+        }
+    }
+
+    @Test
+    public void shouldTickInBackground() throws Exception {
+        try (CachedClock clock = new CachedClock(KIEV, 1)) {
+            long first = clock.millis();
+            long waitUntil = System.currentTimeMillis() + 5000;
+            while (clock.millis() == first && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(5);
+            }
+            assertTrue(clock.millis() > first);
+            assertThat(clock.today(), is(LocalDateTime.ofInstant(clock.instant(), KIEV).toLocalDate()));
+        }
+    }
+
+    @Test
+    public void shouldKeepTickingAfterSourceFailure() throws Exception {
+        FakeClock fake = new FakeClock(Instant.parse("2014-05-30T10:00:00Z"), KIEV);
+        AtomicBoolean failing = new AtomicBoolean();
+        Clock source = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return fake.getZone();
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return fake.withZone(zone);
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(millis());
+            }
+
+            @Override
+            public long millis() {
+                if (failing.get()) throw new DateTimeException("Source clock is unavailable");
+                return fake.millis();
+            }
+        };
+        try (CachedClock clock = new CachedClock(source, 1)) {
+            failing.set(true);
+            fake.advance(Duration.ofSeconds(1));
+            long waitUntil = System.currentTimeMillis() + 5000;
+            while (clock.failedTicks() == 0 && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(5);
+            }
+            assertTrue(clock.failedTicks() > 0);
+            assertTrue(clock.lastTickFailure() instanceof DateTimeException);
+            assertThat(clock.instant(), is(Instant.parse("2014-05-30T10:00:00Z")));
+
+            failing.set(false);
+            while (clock.millis() != fake.millis() && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(5);
+            }
+            assertThat(clock.instant(), is(Instant.parse("2014-05-30T10:00:01Z")));
+        }
+    }
+
+    @Test
+    public void shouldMoveFakeClockOnlyExplicitly() throws Exception {
+        FakeClock clock = new FakeClock(Instant.parse("2014-05-30T10:00:00Z"), ZoneOffset.UTC);
+        Clock kiev = clock.withZone(KIEV);
+        assertThat(clock.instant(), is(clock.instant()));
+        clock.advanceMillis(HOUR * 14);
+        assertThat(currentLocalDate(clock), is(aLocalDate(2014, 5, 31)));
+        assertThat(currentLocalDateTime(kiev), is(LocalDateTime.of(2014, 5, 31, 3, 0)));
+        clock.set(Instant.EPOCH);
+        assertThat(kiev.millis(), is(0L));
+    }
+}
@@ -0,0 +1,115 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Measures how throughput of time zone conversions grows with number of threads: mutating
+ * transformCalendarToUTC/transformCalendarToNewTimeZone (on Calendars owned by each thread,
+ * as sharing them is broken) against CalendarProjections reading one shared Calendar and
+ * ZonedDateTime conversion for reference. Prints CSV lines (function, variant, threads,
+ * ops per second, checksum) like ScalabilityBenchmark:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.CalendarProjectionsBenchmark [maxThreads] [secondsPerRun]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class CalendarProjectionsBenchmark {
+
+    private static final long START_MILLIS = 1401444000000L;
+    private static final long MINUTE_MILLIS = 60000;
+
+    private interface Operation {
+        long run(int iteration) throws Exception;
+    }
+
+    private interface OperationFactory {
+        Operation perThread();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        Calendar shared = toCalendar(aDate(2014, 5, 30));
+        shared.setTimeInMillis(START_MILLIS);
+        ZonedDateTime dateTime = aNewZonedDateTime("30/05/2014 10:00", "dd/MM/yyyy HH:mm", ZoneId.of("Europe/Kiev"));
+
+        Map<String, OperationFactory> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("transformCalendarToUTC,per thread", () -> {
+            Calendar calendar = toCalendar(aDate(2014, 5, 30));
+            return i -> {
+                calendar.setTimeInMillis(START_MILLIS + i * MINUTE_MILLIS);
+                return transformCalendarToUTC(calendar).get(Calendar.HOUR_OF_DAY);
+            };
+        });
+        benchmarks.put("CalendarProjections.toUTC,shared", () -> i -> CalendarProjections.toUTC(shared).get(Calendar.HOUR_OF_DAY));
+        benchmarks.put("transformCalendarToNewTimeZone,per thread", () -> {
+            Calendar calendar = toCalendar(aDate(2014, 5, 30));
+            return i -> {
+                calendar.setTimeInMillis(START_MILLIS + i * MINUTE_MILLIS);
+                return transformCalendarToNewTimeZone(calendar, "America/New_York").get(Calendar.HOUR_OF_DAY);
+            };
+        });
+        benchmarks.put("CalendarProjections.toNewTimeZone,shared", () -> i -> CalendarProjections.toNewTimeZone(shared, "America/New_York").get(Calendar.HOUR_OF_DAY));
+        benchmarks.put("CalendarProjections.localMillis,-", () -> i -> CalendarProjections.localMillis(START_MILLIS + i * MINUTE_MILLIS, "America/New_York"));
+        benchmarks.put("transformToNewTimeZone,-", () -> i -> transformToNewTimeZone(dateTime.plusMinutes(i & 1023), "America/New_York").getHour());
+
+        System.out.println("function,variant,threads,opsPerSecond,checksum");
+        for (Map.Entry<String, OperationFactory> benchmark : benchmarks.entrySet()) {
+            //Warm up run
+            measure(benchmark.getValue(), 1, 1);
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                System.out.println(benchmark.getKey() + "," + threads + "," + measure(benchmark.getValue(), threads, seconds));
+            }
+        }
+    }
+
+    //Returns "opsPerSecond,checksum"
+    private static String measure(OperationFactory factory, int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder operations = new LongAdder();
+        LongAdder checksum = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds) + TimeUnit.MILLISECONDS.toNanos(100);
+        for (int thread = 0; thread < threads; thread++) {
+            executor.execute(() -> {
+                Operation operation = factory.perThread();
+                int iteration = 0;
+                long sum = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        sum += operation.run(iteration++);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    operations.add(iteration);
+                    checksum.add(sum);
+                    done.countDown();
+                }
+            });
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return operations.sum() * TimeUnit.SECONDS.toNanos(1) / elapsed + "," + checksum.sum();
+    }
+}
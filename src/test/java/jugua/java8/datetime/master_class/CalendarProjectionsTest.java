@@ -0,0 +1,88 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares non mutating calendar projections with transforming Calendar in place
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class CalendarProjectionsTest {
+
+    @Test
+    public void shouldProjectCalendarWithoutChangingIt() throws Exception {
+        Calendar calendar = anOldCalendarInTimeZone("10/06/2014 13:00", "dd/MM/yyyy HH:mm", TimeZone.getTimeZone("Europe/London"));
+
+        Calendar inKiev = CalendarProjections.toNewTimeZone(calendar, "Europe/Kiev");
+        Calendar inUTC = CalendarProjections.toUTC(calendar);
+
+        assertThat(inKiev.get(Calendar.HOUR_OF_DAY), is(15));
+        assertThat(inUTC.get(Calendar.HOUR_OF_DAY), is(12));
+        assertThat(calendar.get(Calendar.HOUR_OF_DAY), is(13));
+        assertThat(calendar.getTimeZone().getID(), is("Europe/London"));
+        assertThat(inKiev.get(Calendar.HOUR_OF_DAY), is(transformCalendarToNewTimeZone(calendar, "Europe/Kiev").get(Calendar.HOUR_OF_DAY)));
+    }
+
+    @Test
+    public void shouldProjectBatchSameWayAsTransformingEachCalendar() throws Exception {
+        Calendar[] calendars = new Calendar[500];
+        long[] epochMillis = new long[calendars.length];
+        for (int i = 0; i < calendars.length; i++) {
+            calendars[i] = toCalendar(addDaysToGivenDate(aDate(2014, 1, 1), i));
+            calendars[i].add(Calendar.MINUTE, i * 37);
+            epochMillis[i] = calendars[i].getTimeInMillis();
+        }
+
+        long[] fromCalendars = CalendarProjections.localMillis(calendars, "Europe/Kiev");
+        long[] fromMillis = CalendarProjections.localMillis(epochMillis, "Europe/Kiev");
+        int[] offsets = CalendarProjections.offsetsMillis(epochMillis, "Europe/Kiev");
+
+        for (int i = 0; i < calendars.length; i++) {
+            Calendar transformed = transformCalendarToNewTimeZone((Calendar) calendars[i].clone(), "Europe/Kiev");
+            long expected = transformed.getTimeInMillis() + transformed.get(Calendar.ZONE_OFFSET) + transformed.get(Calendar.DST_OFFSET);
+            assertThat(fromCalendars[i], is(expected));
+            assertThat(fromMillis[i], is(expected));
+            assertThat((long) offsets[i], is(expected - epochMillis[i]));
+        }
+    }
+
+    @Test
+    public void shouldProjectSharedCalendarFromManyThreads() throws Exception {
+        Calendar shared = anOldCalendarInTimeZone("10/06/2014 13:00", "dd/MM/yyyy HH:mm", TimeZone.getTimeZone("Europe/London"));
+        shared.getTimeInMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int task = 0; task < 8; task++) {
+                String zone = task % 2 == 0 ? "Europe/Kiev" : "UTC";
+                int expectedHour = task % 2 == 0 ? 15 : 12;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        if (CalendarProjections.toNewTimeZone(shared, zone).get(Calendar.HOUR_OF_DAY) != expectedHour) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(shared.get(Calendar.HOUR_OF_DAY), is(13));
+    }
+}
@@ -0,0 +1,74 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares compiled patterns with generic DateTimeFormatter used by DateTimeFunctions
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class CompiledDatePatternTest {
+
+    @Test
+    public void shouldParseAndFormatDatesSameAsGenericFormatter() throws Exception {
+        String[] patterns = {"dd MMM yyyy", "dd/MM/yyyy", "yyyy-MM-dd", "yyyyMMdd"};
+        for (String pattern : patterns) {
+            CompiledDatePattern compiled = CompiledDatePattern.compile(pattern);
+            assertTrue(compiled.isSpecialized());
+            for (LocalDate date = aLocalDate(1999, 12, 1); date.getYear() < 2002; date = addDaysToGivenLocalDate(date, 1)) {
+                String text = dateToOutputFormat(date, pattern);
+                assertThat(compiled.format(date), is(text));
+                assertThat(compiled.parseDate(text), is(stringToLocalDate(text, pattern)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldParseAndFormatDateTimesSameAsGenericFormatter() throws Exception {
+        String[] patterns = {"dd/MM/yyyy HH:mm:ss", "dd/MM/yyyy HH:mm", "yyyy-MM-dd HH:mm:ss.SSS"};
+        for (String pattern : patterns) {
+            CompiledDatePattern compiled = CompiledDatePattern.compile(pattern);
+            for (LocalDateTime dateTime = stringToDateWithTime("10/06/1987 00:00", "dd/MM/yyyy HH:mm");
+                 dateTime.getYear() == 1987; dateTime = dateTime.plusSeconds(7919).plusNanos(13000000)) {
+                String text = compiled.formatter().format(dateTime);
+                assertThat(compiled.format(dateTime), is(text));
+                assertThat(compiled.parseDateTime(text), is(stringToDateWithTime(text, pattern)));
+                assertThat(compiled.parseToEpochSecond(text), is(stringToDateWithTime(text, pattern).toEpochSecond(ZoneOffset.UTC)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldLeaveUnusualTextToGenericFormatter() throws Exception {
+        CompiledDatePattern compiled = CompiledDatePattern.compile("dd/MM/yyyy");
+
+        //Smart resolver moves 30th of February to the last day of the month
+        assertThat(compiled.parseDate("30/02/2014"), is(stringToLocalDate("30/02/2014", "dd/MM/yyyy")));
+        assertThat(compiled.parseDate("10/06/+12345"), is(stringToLocalDate("10/06/+12345", "dd/MM/yyyy")));
+        assertThat(compiled.format(aLocalDate(12345, 6, 10)), is(dateToOutputFormat(aLocalDate(12345, 6, 10), "dd/MM/yyyy")));
+    }
+
+    @Test
+    public void shouldFallBackToGenericFormatterForUnsupportedLetters() throws Exception {
+        CompiledDatePattern compiled = CompiledDatePattern.compile("EEE, d MMMM yy");
+
+        assertFalse(compiled.isSpecialized());
+        assertThat(compiled.format(aLocalDate(1987, 6, 10)), is(dateToOutputFormat(aLocalDate(1987, 6, 10), "EEE, d MMMM yy")));
+    }
+
+    @Test(expected = DateTimeParseException.class)
+    public void shouldFailSameWayAsGenericFormatter() throws Exception {
+        CompiledDatePattern.compile("dd/MM/yyyy").parseDate("10/13/1987");
+    }
+}
@@ -0,0 +1,161 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Hammers functions taking shared formatters from many threads at once and counts wrong or failed results.
+ * Immutable DateTimeFormatter must never fail, neither must shared SimpleDateFormat used under a lock.
+ * Without the lock it is not thread safe: corruption is likely but not guaranteed in a single run,
+ * so test repeats runs until it shows up.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ConcurrencyStressTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 20000;
+
+    private interface Outcome {
+        boolean check(int thread, int iteration) throws Exception;
+    }
+
+    @Test
+    public void shouldParseTimeWithSharedDateTimeFormatter() throws Exception {
+        DateTimeFormatter shared = ofPattern("HH:mm:ss");
+
+        int failures = stress((thread, i) -> {
+            LocalTime time = LocalTime.ofSecondOfDay((thread * ITERATIONS + i) % 86400);
+            return aNewTime(time.format(shared), shared).equals(time);
+        });
+
+        assertThat(failures, is(0));
+    }
+
+    @Test
+    public void shouldSetTimeToDateWithSharedDateTimeFormatter() throws Exception {
+        DateTimeFormatter shared = ofPattern("HH:mm");
+
+        int failures = stress((thread, i) -> {
+            LocalDate date = aLocalDate(2014, 1, 1).plusDays(i % 365);
+            LocalTime time = LocalTime.of(thread, i % 60);
+            return setTimeToDate(date, time.toString(), shared).equals(LocalDateTime.of(date, time));
+        });
+
+        assertThat(failures, is(0));
+    }
+
+    @Test
+    public void shouldParseTimeWithPerThreadDateFormat() throws Exception {
+        ThreadLocal<DateFormat> perThread = ThreadLocal.withInitial(() -> new SimpleDateFormat("HH:mm:ss"));
+
+        int failures = stress((thread, i) -> {
+            int secondOfDay = (thread * ITERATIONS + i) % 86400;
+            Date parsed = anOldDateTime(LocalTime.ofSecondOfDay(secondOfDay).format(ofPattern("HH:mm:ss")), perThread.get());
+            return parsed.getHours() * 3600 + parsed.getMinutes() * 60 + parsed.getSeconds() == secondOfDay;
+        });
+
+        assertThat(failures, is(0));
+    }
+
+    @Test
+    public void shouldParseTimeWithSynchronizedSharedDateFormat() throws Exception {
+        DateFormat shared = new SimpleDateFormat("HH:mm:ss");
+
+        int failures = stress((thread, i) -> {
+            int secondOfDay = (thread * ITERATIONS + i) % 86400;
+            Date parsed;
+            synchronized (shared) {
+                parsed = anOldDateTime(LocalTime.ofSecondOfDay(secondOfDay).format(ofPattern("HH:mm:ss")), shared);
+            }
+            return parsed.getHours() * 3600 + parsed.getMinutes() * 60 + parsed.getSeconds() == secondOfDay;
+        });
+
+        assertThat(failures, is(0));
+    }
+
+    @Test
+    public void shouldSetTimeToDateWithSynchronizedSharedDateFormat() throws Exception {
+        DateFormat shared = new SimpleDateFormat("HH:mm");
+
+        int failures = stress(setTimeToDateOutcome(shared, true));
+
+        assertThat(failures, is(0));
+    }
+
+    @Test
+    public void shouldCorruptResultsOfSharedDateFormatWithoutLock() throws Exception {
+        DateFormat shared = new SimpleDateFormat("HH:mm");
+
+        int failures = 0;
+        for (int run = 0; run < 20 && failures == 0; run++) {
+            failures = stress(setTimeToDateOutcome(shared, false));
+        }
+
+        assertTrue("Shared SimpleDateFormat should give wrong or failed results", failures > 0);
+    }
+
+    private static Outcome setTimeToDateOutcome(DateFormat shared, boolean synchronizedAccess) {
+        Date date = aDate(2014, 1, 1);
+        return (thread, i) -> {
+            String time = String.format("%02d:%02d", thread, i % 60);
+            Date dateWithTime;
+            if (synchronizedAccess) {
+                synchronized (shared) {
+                    dateWithTime = setTimeToDate(date, time, shared);
+                }
+            } else {
+                dateWithTime = setTimeToDate(date, time, shared);
+            }
+            return toCalendar(dateWithTime).get(java.util.Calendar.HOUR_OF_DAY) == thread
+                    && toCalendar(dateWithTime).get(java.util.Calendar.MINUTE) == i % 60;
+        };
+    }
+
+    //Runs outcome on all threads started at the same moment, returns number of wrong results or exceptions
+    private static int stress(Outcome outcome) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int threadNumber = thread;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < ITERATIONS; i++) {
+                    try {
+                        if (!outcome.check(threadNumber, i)) failures.incrementAndGet();
+                    } catch (Exception | Error e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        return failures.get();
+    }
+}
@@ -0,0 +1,84 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares primitive date differences with Period, ChronoUnit and Duration
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateDiffsTest {
+
+    @Test
+    public void shouldComputeSamePeriodsAsPeriodBetween() throws Exception {
+        Random random = new Random(17);
+        long[] from = new long[20000];
+        long[] to = new long[from.length];
+        for (int i = 0; i < from.length; i++) {
+            //Month ends and leap days are the tricky ones, so pick dates close to each other too
+            from[i] = aLocalDate(1890 + random.nextInt(250), 1 + random.nextInt(12), 1).toEpochDay() + random.nextInt(31);
+            to[i] = from[i] + (i % 2 == 0 ? random.nextInt(200) - 100 : random.nextInt(40000) - 20000);
+        }
+        long[] totalMonths = new long[from.length];
+        int[] days = new int[from.length];
+        DateDiffs.periods(from, to, totalMonths, days);
+        for (int i = 0; i < from.length; i++) {
+            LocalDate fromDate = LocalDate.ofEpochDay(from[i]);
+            LocalDate toDate = LocalDate.ofEpochDay(to[i]);
+            Period period = Period.between(fromDate, toDate);
+            String pair = fromDate + " - " + toDate;
+            assertThat(pair, totalMonths[i], is(period.toTotalMonths()));
+            assertThat(pair, days[i], is(period.getDays()));
+            assertThat(pair, DateDiffs.monthsBetween(from[i], to[i]), is(ChronoUnit.MONTHS.between(fromDate, toDate)));
+            assertThat(pair, DateDiffs.weeksBetween(from[i], to[i]), is(ChronoUnit.WEEKS.between(fromDate, toDate)));
+            long mondays = ChronoUnit.WEEKS.between(fromDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+                    toDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            assertThat(pair, DateDiffs.isoWeeksBetween(from[i], to[i]), is(mondays));
+        }
+    }
+
+    @Test
+    public void shouldNotLoseMonthsLikePeriodGetDaysDoes() throws Exception {
+        long from = aLocalDate(2014, 1, 31).toEpochDay();
+        long to = aLocalDate(2014, 3, 1).toEpochDay();
+        assertThat(DateDiffs.periodMonths(from, to), is(1L));
+        assertThat(DateDiffs.periodDays(from, to), is(1));
+        assertThat(daysDiff(aLocalDate(2014, 1, 31), aLocalDate(2014, 3, 1)), is(29));
+    }
+
+    @Test
+    public void shouldCountExactHoursAcrossDaylightSaving() throws Exception {
+        ZoneId kiev = ZoneId.of("Europe/Kiev");
+        ZoneOffsetTable table = ZoneOffsetTable.compile(kiev, 2000, 2030);
+        Random random = new Random(23);
+        long[] from = new long[5000];
+        long[] to = new long[from.length];
+        for (int i = 0; i < from.length; i++) {
+            from[i] = stringToDateWithTime("01/01/2013 00:00", "dd/MM/yyyy HH:mm").toEpochSecond(ZoneOffset.UTC) + random.nextInt(3 * 365 * 86400);
+            to[i] = from[i] + random.nextInt(60 * 86400) - 30 * 86400;
+        }
+        long[] hours = new long[from.length];
+        DateDiffs.hoursBetween(from, to, table, hours);
+        for (int i = 0; i < from.length; i++) {
+            ZonedDateTime fromDateTime = ZonedDateTime.of(DateTimeColumns.toLocalDateTime(from[i]), kiev);
+            ZonedDateTime toDateTime = ZonedDateTime.of(DateTimeColumns.toLocalDateTime(to[i]), kiev);
+            Duration duration = Duration.between(fromDateTime, toDateTime);
+            assertThat(DateDiffs.secondsBetween(from[i], to[i], table), is(duration.getSeconds()));
+            assertThat(hours[i], is(duration.toHours()));
+        }
+        //Night of spring switch has only 23 hours
+        long saturday = stringToDateWithTime("29/03/2014 12:00", "dd/MM/yyyy HH:mm").toEpochSecond(ZoneOffset.UTC);
+        assertThat(DateDiffs.hoursBetween(saturday, saturday + 86400, table), is(23L));
+    }
+}
@@ -0,0 +1,69 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares summing values per date in HashMap&lt;LocalDate, Long&gt; with EpochDayLongMap
+ * in sparse and dense mode, reporting time and heap retained by the map:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.DateKeyedMapBenchmark [rows] [distinct dates]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateKeyedMapBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int dates = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        long firstDay = LocalDate.of(2000, 1, 1).toEpochDay();
+        long[] epochDays = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            epochDays[i] = firstDay + (i * 7919L) % dates;
+        }
+        for (int round = 0; round < 3; round++) {
+            report("HashMap<LocalDate, Long>", () -> {
+                Map<LocalDate, Long> sums = new HashMap<>();
+                for (int i = 0; i < rows; i++) {
+                    sums.merge(LocalDate.ofEpochDay(epochDays[i]), (long) i, Long::sum);
+                }
+                return sums;
+            });
+            report("EpochDayLongMap", () -> {
+                EpochDayLongMap sums = new EpochDayLongMap();
+                for (int i = 0; i < rows; i++) {
+                    sums.addTo(epochDays[i], i);
+                }
+                return sums;
+            });
+            report("EpochDayLongMap, dense", () -> {
+                EpochDayLongMap sums = EpochDayLongMap.forRange(LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(firstDay + dates - 1));
+                for (int i = 0; i < rows; i++) {
+                    sums.addTo(epochDays[i], i);
+                }
+                return sums;
+            });
+        }
+    }
+
+    private static void report(String variant, Supplier<Object> aggregation) {
+        long usedBefore = usedHeap();
+        long started = System.nanoTime();
+        Object map = aggregation.get();
+        long millis = (System.nanoTime() - started) / 1000000;
+        long retained = usedHeap() - usedBefore;
+        System.out.println(variant + ": " + millis + "ms, " + retained / 1024 + "KB retained (" + map.hashCode() % 2 + ")");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,87 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares patterns compiled for explicit locales with case insensitive DateTimeFormatter of the same locale
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateNamesTest {
+
+    private static final Locale[] LOCALES = {Locale.ENGLISH, Locale.FRENCH, Locale.GERMAN, new Locale("uk"), new Locale("pl")};
+    private static final String[] PATTERNS = {"dd MMM yyyy", "dd MMMM yyyy", "EEE, dd MMM yyyy", "EEEE dd/MM/yyyy HH:mm"};
+
+    @Test
+    public void shouldFormatAndParseNamesSameAsGenericFormatter() throws Exception {
+        for (Locale locale : LOCALES) {
+            for (String pattern : PATTERNS) {
+                CompiledDatePattern compiled = FormatterCache.compiled(pattern, locale);
+                assertTrue(compiled.isSpecialized());
+                for (LocalDate date = aLocalDate(2015, 12, 20); date.getYear() < 2017; date = addDaysToGivenLocalDate(date, 3)) {
+                    String text = date.atTime(13, 45).format(FormatterCache.of(pattern, locale));
+                    assertThat(compiled.format(date.atTime(13, 45)), is(text));
+                    assertThat(compiled.parseDate(text), is(date));
+                    assertThat(stringToLocalDate(text.toUpperCase(locale), pattern, locale), is(date));
+                    assertThat(stringToLocalDate(text.toLowerCase(locale), pattern, locale), is(date));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepDefaultLocaleCaseSensitive() throws Exception {
+        String text = dateToOutputFormat(aLocalDate(2016, 3, 1), "dd MMM yyyy");
+        assertThat(CompiledDatePattern.compile("dd MMM yyyy").parseDate(text), is(aLocalDate(2016, 3, 1)));
+        try {
+            CompiledDatePattern.compile("dd MMM yyyy").parseDate(text.toUpperCase());
+            fail("Default locale pattern should stay case sensitive");
+        } catch (DateTimeParseException e) {
+            //expected, same as LocalDate.parse gives
+        }
+    }
+
+    @Test
+    public void shouldDelegateDayOfWeekNotMatchingDateToGenericFormatter() throws Exception {
+        String text = "Monday 01/03/2016 10:00";
+        try {
+            stringToLocalDate(text, "EEEE dd/MM/yyyy HH:mm", Locale.ENGLISH);
+            fail("1st of March 2016 was Tuesday");
+        } catch (DateTimeParseException e) {
+            try {
+                LocalDate.parse(text, new DateTimeFormatterBuilder().parseCaseInsensitive()
+                        .appendPattern("EEEE dd/MM/yyyy HH:mm").toFormatter(Locale.ENGLISH));
+                fail();
+            } catch (DateTimeParseException expected) {
+                assertThat(e.getMessage(), is(expected.getMessage()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchLongestNameIgnoringCase() throws Exception {
+        NameTrie trie = new NameTrie(new String[]{"Ma", "Mar", "March", "mai"}, true);
+        assertThat(trie.match("MARCH 1", 0), is(2));
+        assertThat(trie.match("x mars", 2), is(1));
+        assertThat(trie.match("Mx", 0), is(-1));
+        assertThat(trie.match("MAI", 0), is(3));
+    }
+
+    @Test
+    public void shouldFormatLegacyDatesInGivenLocale() throws Exception {
+        String text = dateToOutputFormat(aLocalDate(2016, 3, 1), "dd MMMM yyyy", Locale.GERMAN);
+        assertThat(text, is("01 M\u00e4rz 2016"));
+        assertThat(dateToOutputFormat(stringToDate(text, "dd MMMM yyyy", Locale.GERMAN), "dd MMMM yyyy", Locale.GERMAN), is(text));
+    }
+}
@@ -0,0 +1,96 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares range index queries with pairwise date comparisons
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateRangeIndexTest {
+
+    @Test
+    public void shouldFindRangesContainingDate() throws Exception {
+        DateRangeIndex index = DateRangeIndex.builder()
+                .add(aLocalDate(2014, 1, 1), aLocalDate(2014, 12, 31))
+                .add(aLocalDate(2014, 6, 1), aLocalDate(2014, 6, 30))
+                .add(aLocalDate(2013, 1, 1), aLocalDate(2014, 5, 31))
+                .add(aLocalDate(2014, 6, 10), aLocalDate(2014, 6, 10))
+                .build();
+
+        assertThat(sorted(index.containing(aLocalDate(2014, 6, 10))), is(new int[]{0, 1, 3}));
+        assertThat(sorted(index.containing(aLocalDate(2014, 5, 31))), is(new int[]{0, 2}));
+        assertThat(index.containing(aLocalDate(2015, 1, 1)), is(new int[0]));
+        assertThat(sorted(index.overlapping(aLocalDate(2014, 5, 31), aLocalDate(2014, 6, 1))), is(new int[]{0, 1, 2}));
+        assertThat(sorted(index.within(aLocalDate(2014, 6, 1), aLocalDate(2014, 12, 31))), is(new int[]{1, 3}));
+        assertThat(index.startOf(2), is(aLocalDate(2013, 1, 1)));
+    }
+
+    @Test
+    public void shouldAnswerSameAsPairwiseComparisons() throws Exception {
+        Random random = new Random(42);
+        LocalDate base = aLocalDate(2000, 1, 1);
+        DateRangeIndex.Builder builder = DateRangeIndex.builder();
+        LocalDate[][] ranges = new LocalDate[3000][];
+        for (int i = 0; i < ranges.length; i++) {
+            LocalDate from = addDaysToGivenLocalDate(base, random.nextInt(5000));
+            ranges[i] = new LocalDate[]{from, addDaysToGivenLocalDate(from, random.nextInt(400))};
+            builder.add(ranges[i][0], ranges[i][1]);
+        }
+        DateRangeIndex index = builder.build();
+
+        long[] dates = new long[500];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = addDaysToGivenLocalDate(base, random.nextInt(5600) - 100).toEpochDay();
+        }
+        int[] counts = index.countContaining(dates);
+        int[] firstIds = index.firstContaining(dates);
+        for (int i = 0; i < dates.length; i++) {
+            LocalDate date = LocalDate.ofEpochDay(dates[i]);
+            int firstId = firstIds[i];
+            int[] expected = Arrays.stream(ranges).filter(range -> !date.isBefore(range[0]) && !date.isAfter(range[1]))
+                    .mapToInt(range -> Arrays.asList(ranges).indexOf(range)).toArray();
+            assertThat(sorted(index.containing(date)), is(expected));
+            assertThat(counts[i], is(expected.length));
+            if (expected.length == 0) {
+                assertThat(firstId, is(-1));
+            } else {
+                assertThat(Arrays.stream(expected).anyMatch(id -> id == firstId), is(true));
+                assertThat(Arrays.stream(expected).allMatch(id -> !index.startOf(id).isBefore(index.startOf(firstId))), is(true));
+            }
+        }
+    }
+
+    @Test
+    public void shouldBuildFromSortedEpochDays() throws Exception {
+        long[] starts = {aLocalDate(2014, 1, 1).toEpochDay(), aLocalDate(2014, 2, 1).toEpochDay(), aLocalDate(2014, 3, 1).toEpochDay()};
+        long[] ends = {adjustDateToLastDayOfAMonth(aLocalDate(2014, 1, 1)).toEpochDay(),
+                adjustDateToLastDayOfAMonth(aLocalDate(2014, 2, 1)).toEpochDay(),
+                adjustDateToLastDayOfAMonth(aLocalDate(2014, 3, 1)).toEpochDay()};
+
+        DateRangeIndex index = DateRangeIndex.ofSorted(starts, ends);
+
+        assertThat(index.firstContaining(new long[]{aLocalDate(2014, 2, 28).toEpochDay(), aLocalDate(2014, 4, 1).toEpochDay()}), is(new int[]{1, -1}));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldRejectUnsortedInput() throws Exception {
+        DateRangeIndex.ofSorted(new long[]{10, 5}, new long[]{20, 30});
+    }
+
+    private static int[] sorted(int[] ids) {
+        int[] copy = ids.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
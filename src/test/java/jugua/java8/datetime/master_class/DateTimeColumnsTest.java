@@ -0,0 +1,79 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares date/time column kernels with DateTimeFunctions applied to every row
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateTimeColumnsTest {
+
+    private static LocalDateTime[] dateTimes() {
+        LocalDateTime[] dateTimes = new LocalDateTime[500];
+        for (int i = 0; i < dateTimes.length; i++) {
+            //Before and after epoch to check flooring of negative values
+            dateTimes[i] = stringToDateWithTime("10/06/1965 13:47:59", "dd/MM/yyyy HH:mm:ss").plusSeconds(i * 7919L * 997);
+        }
+        return dateTimes;
+    }
+
+    @Test
+    public void shouldSetTimeSameAsSetTimeToDate() throws Exception {
+        LocalDateTime[] dateTimes = dateTimes();
+        long[] epochDays = DateTimeColumns.epochDays(DateTimeColumns.of(dateTimes));
+        long[] combined = DateTimeColumns.atTime(epochDays, "23:15:01", "HH:mm:ss");
+        long[] moved = DateTimeColumns.of(dateTimes);
+        DateTimeColumns.setTime(moved, "23:15:01", "HH:mm:ss");
+        for (int i = 0; i < dateTimes.length; i++) {
+            LocalDate date = truncateDateWithTimeToDateOnly(dateTimes[i]);
+            assertThat(epochDays[i], is(date.toEpochDay()));
+            LocalDateTime expected = setTimeToDate(date, "23:15:01", ofPattern("HH:mm:ss"));
+            assertThat(DateTimeColumns.toLocalDateTime(combined[i]), is(expected));
+            assertThat(moved[i], is(combined[i]));
+        }
+    }
+
+    @Test
+    public void shouldSplitAndCombineBack() throws Exception {
+        long[] epochSeconds = DateTimeColumns.of(dateTimes());
+        long[] epochDays = new long[epochSeconds.length];
+        int[] secondsOfDay = new int[epochSeconds.length];
+        DateTimeColumns.split(epochSeconds, epochDays, secondsOfDay);
+        assertThat(DateTimeColumns.combine(epochDays, secondsOfDay), is(epochSeconds));
+        assertThat(DateTimeColumns.secondsOfDay(epochSeconds), is(secondsOfDay));
+        for (int i = 0; i < epochSeconds.length; i++) {
+            assertThat(SecondsOfDay.toLocalTime(secondsOfDay[i]), is(DateTimeColumns.toLocalDateTime(epochSeconds[i]).toLocalTime()));
+        }
+    }
+
+    @Test
+    public void shouldTruncateSameAsLocalDateTime() throws Exception {
+        LocalDateTime[] dateTimes = dateTimes();
+        for (ChronoUnit unit : new ChronoUnit[]{ChronoUnit.SECONDS, ChronoUnit.MINUTES, ChronoUnit.HOURS, ChronoUnit.DAYS}) {
+            long[] truncated = DateTimeColumns.of(dateTimes);
+            DateTimeColumns.truncate(truncated, unit);
+            for (int i = 0; i < dateTimes.length; i++) {
+                assertThat(dateTimes[i] + " to " + unit, truncated[i], is(dateTimes[i].truncatedTo(unit).toEpochSecond(ZoneOffset.UTC)));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedTemporalTypeException.class)
+    public void shouldNotTruncateToMonths() throws Exception {
+        DateTimeColumns.truncate(new long[1], ChronoUnit.MONTHS);
+    }
+}
@@ -0,0 +1,114 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static jugua.java8.datetime.master_class.DateTimeStage.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Shows streaming of records through {@link DateTimeStage}
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateTimeStageTest {
+
+    @Test
+    public void shouldParseZoneAndConvertRecordsPreservingOrder() throws Exception {
+        List<String> records = new ArrayList<>();
+        for (int day = 1; day <= 28; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                records.add(String.format("%02d/02/2014 %02d:00", day, hour));
+            }
+        }
+        List<ZonedDateTime> results = new ArrayList<>();
+
+        try (DateTimeStage<String, ZonedDateTime> stage = new DateTimeStage<>(
+                parsingInZone("dd/MM/yyyy HH:mm", ZoneId.of("Europe/London")).andThen(convertingToTimeZone("Europe/Kiev")),
+                results::add, 16, 4)) {
+            stage.publish(records);
+        }
+
+        assertThat(results.size(), is(records.size()));
+        for (int i = 0; i < records.size(); i++) {
+            ZonedDateTime expected = transformToNewTimeZone(
+                    aNewZonedDateTime(records.get(i), "dd/MM/yyyy HH:mm", ZoneId.of("Europe/London")), "Europe/Kiev");
+            assertThat(results.get(i), is(expected));
+        }
+    }
+
+    @Test
+    public void shouldAdjustParsedDatesToWorkingDays() throws Exception {
+        List<LocalDate> results = new ArrayList<>();
+
+        try (DateTimeStage<String, LocalDate> stage = new DateTimeStage<>(
+                parsing("dd/MM/yyyy HH:mm").andThen(DateTimeFunctions::truncateDateWithTimeToDateOnly).andThen(addingWorkingDays(10)),
+                results::add, 3, 2)) {
+            stage.onNext("10/08/2014 13:00");
+            stage.onNext("11/08/2014 09:30");
+            stage.onComplete();
+        }
+
+        assertThat(results.get(0), is(aLocalDate(2014, 8, 22)));
+        assertThat(results.get(1), is(aLocalDate(2014, 8, 25)));
+    }
+
+    @Test
+    public void shouldBoundNumberOfBatchesInFlight() throws Exception {
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger pushed = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<Integer> results = new CopyOnWriteArrayList<>();
+
+        try (DateTimeStage<Integer, Integer> stage = new DateTimeStage<>(record -> {
+            started.incrementAndGet();
+            firstStarted.countDown();
+            gate.await();
+            return record;
+        }, results::add, 1, 1)) {
+            Thread publisher = new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    stage.onNext(i);
+                    pushed.incrementAndGet();
+                }
+                stage.onComplete();
+            });
+            publisher.start();
+            firstStarted.await();
+            //Publisher parks waiting for the oldest batch once 2 x parallelism batches are submitted
+            while (publisher.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+            //Single thread is stuck on the first batch, the second one waits in executor queue
+            assertThat(started.get(), is(1));
+            assertThat(pushed.get(), is(2));
+            assertTrue(results.isEmpty());
+            gate.countDown();
+            publisher.join();
+        }
+
+        assertThat(results.size(), is(10));
+        for (int i = 0; i < 10; i++) {
+            assertThat(results.get(i), is(i));
+        }
+    }
+
+    @Test(expected = CompletionException.class)
+    public void shouldPropagateParsingFailureToPublisher() throws Exception {
+        try (DateTimeStage<String, LocalDateTime> stage = new DateTimeStage<>(parsing("dd/MM/yyyy HH:mm"), record -> {}, 2, 2)) {
+            stage.publish(java.util.Arrays.asList("10/08/2014 13:00", "not a date"));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Checks that warm up preloads formatters to be reused later
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class DateTimeWarmUpTest {
+
+    @Test
+    public void shouldPreloadConfiguredPatterns() throws Exception {
+        assertFalse(FormatterCache.contains("yyyy.MM.dd HH:mm"));
+
+        DateTimeWarmUp.warmUp(Arrays.asList("yyyy.MM.dd HH:mm", "dd MMM yyyy"), Collections.singletonList("Europe/Kiev"), 100);
+
+        assertTrue(FormatterCache.contains("yyyy.MM.dd HH:mm"));
+        assertThat(FormatterCache.of("dd MMM yyyy"), is(FormatterCache.of("dd MMM yyyy")));
+    }
+}
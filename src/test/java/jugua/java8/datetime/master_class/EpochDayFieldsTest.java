@@ -0,0 +1,62 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares bulk field extraction with DateTimeFunctions applied to every LocalDate
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class EpochDayFieldsTest {
+
+    @Test
+    public void shouldExtractSameFieldsAsLocalDate() throws Exception {
+        long[] epochDays = new long[6000];
+        int[] intEpochDays = new int[epochDays.length];
+        for (int i = 0; i < epochDays.length; i++) {
+            //Every day around table bounds, then BC years, leap centuries and far future
+            epochDays[i] = i < 3000 ? (i < 1500 ? -25567 - 750 : 47482 - 2250) + i : -800000L + i * 997L + (i % 13);
+            intEpochDays[i] = (int) epochDays[i];
+        }
+        int[] years = EpochDayFields.years(epochDays);
+        int[] months = EpochDayFields.months(epochDays);
+        int[] days = EpochDayFields.days(epochDays);
+        int[] intYears = new int[epochDays.length];
+        int[] intMonths = new int[epochDays.length];
+        int[] intDays = new int[epochDays.length];
+        EpochDayFields.decode(intEpochDays, intYears, intMonths, intDays);
+        int[] daysOfWeek = new int[epochDays.length];
+        EpochDayFields.daysOfWeek(epochDays, daysOfWeek);
+        int[] intDaysOfWeek = new int[epochDays.length];
+        EpochDayFields.daysOfWeek(intEpochDays, intDaysOfWeek);
+        boolean[] workingDays = new boolean[epochDays.length];
+        EpochDayFields.workingDays(epochDays, workingDays);
+        boolean[] intWorkingDays = new boolean[epochDays.length];
+        EpochDayFields.workingDays(intEpochDays, intWorkingDays);
+
+        int expectedWorkingDays = 0;
+        for (int i = 0; i < epochDays.length; i++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+            assertThat(date.toString(), years[i], is(yearOf(date)));
+            assertThat(date.toString(), months[i], is(monthOf(date)));
+            assertThat(date.toString(), days[i], is(dayOf(date)));
+            assertThat(intYears[i], is(years[i]));
+            assertThat(intMonths[i], is(months[i]));
+            assertThat(intDays[i], is(days[i]));
+            assertThat(date.toString(), daysOfWeek[i], is(date.getDayOfWeek().getValue()));
+            assertThat(intDaysOfWeek[i], is(daysOfWeek[i]));
+            assertThat(date.toString(), workingDays[i], is(isWorkingDay(date)));
+            assertThat(intWorkingDays[i], is(workingDays[i]));
+            expectedWorkingDays += isWorkingDay(date) ? 1 : 0;
+        }
+        assertThat(EpochDayFields.countWorkingDays(epochDays), is(expectedWorkingDays));
+    }
+}
@@ -0,0 +1,98 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares epoch day map and set with HashMap and TreeSet of LocalDate
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class EpochDayLongMapTest {
+
+    @Test
+    public void shouldAggregateSameAsHashMap() throws Exception {
+        EpochDayLongMap sparse = new EpochDayLongMap();
+        EpochDayLongMap dense = EpochDayLongMap.forRange(aLocalDate(2014, 1, 1), aLocalDate(2014, 12, 31));
+        Map<LocalDate, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            //Mostly dates of 2014, some far away
+            LocalDate date = addDaysToGivenLocalDate(aLocalDate(2014, 1, 1), i % 10 == 0 ? random.nextInt(200000) - 100000 : random.nextInt(365));
+            long value = random.nextInt(1000);
+            expected.merge(date, value, Long::sum);
+            assertThat(sparse.addTo(date, value), is(expected.get(date)));
+            assertThat(dense.addTo(date, value), is(expected.get(date)));
+        }
+        for (EpochDayLongMap map : Arrays.asList(sparse, dense)) {
+            assertThat(map.size(), is(expected.size()));
+            for (Map.Entry<LocalDate, Long> entry : expected.entrySet()) {
+                assertTrue(map.containsKey(entry.getKey().toEpochDay()));
+                assertThat(map.get(entry.getKey(), -1), is((long) entry.getValue()));
+            }
+            assertThat(map.keys(), is(expected.keySet().stream().sorted().mapToLong(LocalDate::toEpochDay).toArray()));
+            Map<LocalDate, Long> visited = new HashMap<>();
+            map.forEach((epochDay, value) -> visited.put(LocalDate.ofEpochDay(epochDay), value));
+            assertThat(visited, is(expected));
+        }
+        assertFalse(dense.containsKey(aLocalDate(2013, 12, 31).toEpochDay()) && !expected.containsKey(aLocalDate(2013, 12, 31)));
+        assertThat(sparse.get(aLocalDate(1900, 1, 1), -1), is(-1L));
+    }
+
+    @Test
+    public void shouldOverwriteValuesOnPut() throws Exception {
+        EpochDayLongMap map = EpochDayLongMap.forRange(aLocalDate(2014, 5, 1), aLocalDate(2014, 5, 31));
+        map.put(aLocalDate(2014, 5, 30).toEpochDay(), 1);
+        map.put(aLocalDate(2014, 5, 30).toEpochDay(), 2);
+        map.put(aLocalDate(2014, 6, 10).toEpochDay(), 3);
+        map.put(aLocalDate(2014, 6, 10).toEpochDay(), 4);
+        assertThat(map.size(), is(2));
+        assertThat(map.get(aLocalDate(2014, 5, 30), 0), is(2L));
+        assertThat(map.get(aLocalDate(2014, 6, 10), 0), is(4L));
+    }
+
+    @Test
+    public void shouldKeepDistinctDatesSameAsTreeSet() throws Exception {
+        EpochDaySet sparse = new EpochDaySet();
+        EpochDaySet dense = EpochDaySet.forRange(aLocalDate(2014, 1, 1), aLocalDate(2014, 3, 1));
+        TreeSet<LocalDate> expected = new TreeSet<>();
+        for (int i = 0; i < 5000; i++) {
+            LocalDate date = addDaysToGivenLocalDate(aLocalDate(2014, 1, 1), (i * 7919) % 300 - 100);
+            boolean added = expected.add(date);
+            assertThat(sparse.add(date), is(added));
+            assertThat(dense.add(date), is(added));
+        }
+        long[] sorted = expected.stream().mapToLong(LocalDate::toEpochDay).toArray();
+        for (EpochDaySet set : Arrays.asList(sparse, dense)) {
+            assertThat(set.size(), is(expected.size()));
+            assertThat(set.toSortedArray(), is(sorted));
+            assertTrue(set.contains(expected.first()));
+            assertFalse(set.contains(addDaysToGivenLocalDate(expected.last(), 1)));
+        }
+    }
+
+    @Test
+    public void shouldBePopulatedFromParsedDatesAndDateTimes() throws Exception {
+        List<String> texts = Arrays.asList("10/06/1987", "30/05/2014", "10/06/1987", "30/02/2014");
+        EpochDayLongMap counts = EpochDayLongMap.countParsedDates(texts, "dd/MM/yyyy");
+        assertThat(counts.get(stringToLocalDate("10/06/1987", "dd/MM/yyyy"), 0), is(2L));
+        assertThat(counts.get(stringToLocalDate("30/02/2014", "dd/MM/yyyy"), 0), is(1L));
+        assertThat(EpochDaySet.ofParsedDates(texts, "dd/MM/yyyy").size(), is(3));
+
+        List<LocalDateTime> dateTimes = Arrays.asList(stringToDateWithTime("30/05/2014 00:00", "dd/MM/yyyy HH:mm"),
+                stringToDateWithTime("30/05/2014 23:59", "dd/MM/yyyy HH:mm"), stringToDateWithTime("31/05/2014 00:00", "dd/MM/yyyy HH:mm"));
+        EpochDayLongMap perDate = EpochDayLongMap.countDatesOf(dateTimes);
+        assertThat(perDate.get(truncateDateWithTimeToDateOnly(dateTimes.get(1)), 0), is(2L));
+        assertThat(EpochDaySet.ofDatesOf(dateTimes).toSortedArray(), is(new long[]{
+                aLocalDate(2014, 5, 30).toEpochDay(), aLocalDate(2014, 5, 31).toEpochDay()}));
+    }
+}
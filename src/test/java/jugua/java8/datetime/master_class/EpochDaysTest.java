@@ -0,0 +1,51 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Checks primitive epoch day arithmetic against JSR-310 objects
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class EpochDaysTest {
+
+    @Test
+    public void shouldDecomposeEpochDaysSameWayAsLocalDate() throws Exception {
+        for (long epochDay = aLocalDate(1600, 1, 1).toEpochDay(); epochDay <= aLocalDate(2400, 12, 31).toEpochDay(); epochDay++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            assertThat(EpochDays.yearOf(epochDay), is(yearOf(date)));
+            assertThat(EpochDays.monthOf(epochDay), is(monthOf(date)));
+            assertThat(EpochDays.dayOf(epochDay), is(dayOf(date)));
+            assertThat(EpochDays.of(yearOf(date), monthOf(date), dayOf(date)), is(epochDay));
+            assertThat(EpochDays.dayOfWeek(epochDay), is(date.getDayOfWeek().getValue()));
+            assertThat(EpochDays.isWorkingDay(epochDay), is(isWorkingDay(date)));
+            assertThat(EpochDays.lastDayOfMonth(epochDay), is(adjustDateToLastDayOfAMonth(date).toEpochDay()));
+        }
+    }
+
+    @Test
+    public void shouldAddWorkingDaysSameWayAsTemporalAdjuster() throws Exception {
+        LocalDate monday = aLocalDate(2014, 8, 4);
+        for (int day = 0; day < 7; day++) {
+            for (int workingDays = 1; workingDays <= 40; workingDays++) {
+                LocalDate date = monday.plusDays(day);
+                assertThat(EpochDays.plusWorkingDays(date.toEpochDay(), workingDays), is(adjustWorkingDays(date, workingDays).toEpochDay()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCountWorkingDaysBetweenDates() throws Exception {
+        assertThat(EpochDays.workingDaysBetween(aLocalDate(2014, 8, 4).toEpochDay(), aLocalDate(2014, 8, 11).toEpochDay()), is(5L));
+        assertThat(EpochDays.workingDaysBetween(aLocalDate(2014, 8, 9).toEpochDay(), aLocalDate(2014, 8, 11).toEpochDay()), is(0L));
+        assertThat(EpochDays.workingDaysBetween(aLocalDate(2014, 8, 10).toEpochDay(), aLocalDate(2014, 8, 22).toEpochDay()), is(9L));
+    }
+}
@@ -0,0 +1,115 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares external sort of a small file spilled into many runs with sorting lines in memory
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ExternalDateSortTest {
+
+    private static final String PATTERN = "dd/MM/yyyy HH:mm:ss";
+
+    private Path input;
+    private Path output;
+
+    @Before
+    public void createFiles() throws Exception {
+        input = Files.createTempFile("unsorted", ".csv");
+        output = Files.createTempFile("sorted", ".csv");
+    }
+
+    @After
+    public void deleteFiles() throws Exception {
+        Files.deleteIfExists(input);
+        Files.deleteIfExists(output);
+    }
+
+    @Test
+    public void shouldSortSameAsStableInMemorySort() throws Exception {
+        Random random = new Random(7);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            //Few distinct seconds so that many lines have equal dates
+            LocalDateTime dateTime = stringToDateWithTime("01/01/1960 00:00:00", PATTERN).plusSeconds(random.nextInt(2000) * 86413L);
+            lines.add("trade" + i + "," + (i % 2 == 0 ? "buy" : "sell") + "," + CompiledDatePattern.compile(PATTERN).format(dateTime) + ",\u041a\u0438\u0457\u0432");
+        }
+        Files.write(input, lines, StandardCharsets.UTF_8);
+
+        ExternalDateSort.Stats stats = new ExternalDateSort(',', 2, PATTERN, 700, 3).sort(input, output);
+
+        List<String> expected = lines.stream()
+                .sorted(Comparator.comparing(line -> stringToDateWithTime(line.split(",")[2], PATTERN)))
+                .collect(Collectors.toList());
+        assertThat(Files.readAllLines(output, StandardCharsets.UTF_8), is(expected));
+        assertThat(stats.lines(), is(5000L));
+        assertThat(stats.runs(), is(8));
+        assertTrue(stats.peakHeapBytes() > 0);
+    }
+
+    @Test
+    public void shouldRadixSortKeysAndReturnTheirPositions() throws Exception {
+        long[] keys = {5, -3, 1L << 40, 5, Long.MIN_VALUE / 2, 0};
+        long[] original = keys.clone();
+        int[] order = ExternalDateSort.radixSort(keys, keys.length);
+        assertThat(keys, is(new long[]{Long.MIN_VALUE / 2, -3, 0, 5, 5, 1L << 40}));
+        assertThat(order, is(new int[]{4, 1, 5, 0, 3, 2}));
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(original[order[i]], is(keys[i]));
+        }
+    }
+
+    @Test
+    public void shouldSortEmptyFile() throws Exception {
+        ExternalDateSort.Stats stats = new ExternalDateSort(',', 0, PATTERN).sort(input, output);
+        assertThat(stats.lines(), is(0L));
+        assertThat(Files.size(output), is(0L));
+    }
+
+    @Test
+    public void shouldCleanUpRunsWhenLineCanNotBeParsed() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            lines.add("trade" + i + ",buy," + CompiledDatePattern.compile(PATTERN).format(stringToDateWithTime("01/01/2014 00:00:00", PATTERN).plusSeconds(i * 7919L)));
+        }
+        lines.add("broken,buy,not a date");
+        Files.write(input, lines, StandardCharsets.UTF_8);
+        List<Path> tempFilesBefore = tempDirectoriesNextTo(output);
+
+        try {
+            new ExternalDateSort(',', 2, PATTERN, 500, 4).sort(input, output);
+            fail("Line without date should fail sorting");
+        } catch (DateTimeParseException expected) {
+        }
+
+        assertThat(tempDirectoriesNextTo(output), is(tempFilesBefore));
+    }
+
+    private static List<Path> tempDirectoriesNextTo(Path file) throws Exception {
+        try (Stream<Path> files = Files.list(file.toAbsolutePath().getParent())) {
+            return files.filter(path -> path.getFileName().toString().startsWith("sort") && Files.isDirectory(path))
+                    .sorted().collect(Collectors.toList());
+        }
+    }
+}
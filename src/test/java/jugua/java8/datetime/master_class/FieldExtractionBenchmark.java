@@ -0,0 +1,64 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares extracting year, month, day and working day flag of an epoch day column
+ * through LocalDate objects with bulk kernels of EpochDayFields:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.FieldExtractionBenchmark [rows]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class FieldExtractionBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        long[] epochDays = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            epochDays[i] = 10000 + (i * 7919L) % 20000;
+        }
+        int[] years = new int[rows];
+        int[] months = new int[rows];
+        int[] days = new int[rows];
+        boolean[] workingDays = new boolean[rows];
+        for (int round = 0; round < 5; round++) {
+            report("LocalDate per row", rows, () -> {
+                for (int i = 0; i < rows; i++) {
+                    LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+                    years[i] = yearOf(date);
+                    months[i] = monthOf(date);
+                    days[i] = dayOf(date);
+                    workingDays[i] = isWorkingDay(date);
+                }
+                return years[rows - 1] + months[rows / 2] + days[rows / 3] + (workingDays[0] ? 1 : 0);
+            });
+            report("EpochDays per row", rows, () -> {
+                for (int i = 0; i < rows; i++) {
+                    years[i] = EpochDays.yearOf(epochDays[i]);
+                    months[i] = EpochDays.monthOf(epochDays[i]);
+                    days[i] = EpochDays.dayOf(epochDays[i]);
+                    workingDays[i] = EpochDays.isWorkingDay(epochDays[i]);
+                }
+                return years[rows - 1] + months[rows / 2] + days[rows / 3] + (workingDays[0] ? 1 : 0);
+            });
+            report("EpochDayFields kernels", rows, () -> {
+                EpochDayFields.decode(epochDays, years, months, days);
+                EpochDayFields.workingDays(epochDays, workingDays);
+                return years[rows - 1] + months[rows / 2] + days[rows / 3] + (workingDays[0] ? 1 : 0);
+            });
+        }
+    }
+
+    private static void report(String variant, int rows, Supplier<Integer> operation) {
+        long started = System.nanoTime();
+        int checksum = operation.get();
+        long nanos = System.nanoTime() - started;
+        System.out.println(variant + ": " + nanos * 1000 / rows + "ps/row (" + checksum + ")");
+    }
+}
@@ -0,0 +1,51 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Shows cached formatters following default locale and cache staying bounded
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class FormatterCacheTest {
+
+    @Test
+    public void shouldFollowDefaultLocaleChanges() throws Exception {
+        Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, Locale.ENGLISH);
+            assertThat(dateToOutputFormat(aLocalDate(2016, 3, 1), "dd MMMM yyyy"), is("01 March 2016"));
+            Locale.setDefault(Locale.Category.FORMAT, Locale.GERMAN);
+            assertThat(dateToOutputFormat(aLocalDate(2016, 3, 1), "dd MMMM yyyy"), is("01 M\u00e4rz 2016"));
+            assertThat(stringToLocalDate("01 M\u00e4rz 2016", "dd MMMM yyyy"), is(aLocalDate(2016, 3, 1)));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+        }
+    }
+
+    @Test
+    public void shouldStopCachingPatternsBeyondLimit() throws Exception {
+        Locale defaultLocale = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            //Locale of its own, so the limit doesn't affect other tests
+            Locale.setDefault(Locale.Category.FORMAT, new Locale("en", "GB", "bounded"));
+            int cached = 0;
+            for (int i = 0; i < FormatterCache.MAX_PATTERNS_PER_LOCALE * 2; i++) {
+                String pattern = "'pattern " + i + "' yyyy-MM-dd";
+                assertThat(dateToOutputFormat(aLocalDate(2016, 3, 1), pattern), is("pattern " + i + " 2016-03-01"));
+                if (FormatterCache.contains(pattern)) cached++;
+            }
+            assertThat(cached, is(FormatterCache.MAX_PATTERNS_PER_LOCALE));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, defaultLocale);
+        }
+    }
+}
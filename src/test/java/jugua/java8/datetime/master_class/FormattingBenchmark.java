@@ -0,0 +1,50 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.util.function.IntToLongFunction;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares parsing and printing of dates with compiled patterns against generic formatters.
+ * Both sides produce the same LocalDate or String, which is folded into a printed checksum:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.FormattingBenchmark [iterations]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class FormattingBenchmark {
+
+    private static final String[] PATTERNS = {"dd/MM/yyyy", "dd MMM yyyy", "yyyy-MM-dd"};
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        for (String pattern : PATTERNS) {
+            CompiledDatePattern compiled = CompiledDatePattern.compile(pattern);
+            String[] texts = new String[1024];
+            LocalDate[] dates = new LocalDate[texts.length];
+            for (int i = 0; i < texts.length; i++) {
+                dates[i] = addDaysToGivenLocalDate(aLocalDate(2000, 1, 1), i * 7);
+                texts[i] = dateToOutputFormat(dates[i], pattern);
+            }
+            for (int round = 0; round < 3; round++) {
+                report(pattern, "parse, generic formatter", iterations, i -> LocalDate.parse(texts[i & 1023], compiled.formatter()).toEpochDay());
+                report(pattern, "parse, compiled pattern", iterations, i -> compiled.parseDate(texts[i & 1023]).toEpochDay());
+                report(pattern, "format, generic formatter", iterations, i -> compiled.formatter().format(dates[i & 1023]).hashCode());
+                report(pattern, "format, compiled pattern", iterations, i -> compiled.format(dates[i & 1023]).hashCode());
+            }
+        }
+    }
+
+    private static void report(String pattern, String variant, int iterations, IntToLongFunction operation) {
+        long started = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += operation.applyAsLong(i);
+        }
+        long nanos = System.nanoTime() - started;
+        System.out.println(pattern + ", " + variant + ": " + nanos / iterations + "ns/op (" + checksum + ")");
+    }
+}
@@ -0,0 +1,78 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares incremental parsing of log-like timestamps with full parsing by DateTimeFunctions
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class IncrementalTimestampParserTest {
+
+    @Test
+    public void shouldParseMonotonicTimestampsSameAsFullParsing() throws Exception {
+        String[] patterns = {"yyyy-MM-dd HH:mm:ss", "dd/MM/yyyy HH:mm", "yyyyMMddHHmmss"};
+        for (String pattern : patterns) {
+            IncrementalTimestampParser parser = new IncrementalTimestampParser(pattern);
+            CompiledDatePattern compiled = CompiledDatePattern.compile(pattern);
+            int parsed = 0;
+            for (LocalDateTime dateTime = stringToDateWithTime("30/12/1999 22:00", "dd/MM/yyyy HH:mm");
+                 dateTime.getYear() < 2000 || dateTime.getDayOfYear() < 3; dateTime = dateTime.plusSeconds(997)) {
+                String text = compiled.format(dateTime);
+                assertThat(text, parser.parseToEpochSecond(text), is(stringToDateWithTime(text, pattern).toEpochSecond(ZoneOffset.UTC)));
+                parsed++;
+            }
+            assertTrue(pattern, parser.incrementalParses() > parsed * 9 / 10);
+        }
+    }
+
+    @Test
+    public void shouldHandleTimestampsGoingBackInTime() throws Exception {
+        IncrementalTimestampParser parser = new IncrementalTimestampParser("yyyy-MM-dd HH:mm:ss");
+        String[] texts = {"2014-05-30 23:59:59", "2014-05-31 00:00:01", "2014-05-30 23:59:58", "2014-05-30 00:00:00"};
+        for (String text : texts) {
+            assertThat(parser.parseToEpochSecond(text), is(stringToDateWithTime(text, "yyyy-MM-dd HH:mm:ss").toEpochSecond(ZoneOffset.UTC)));
+        }
+        assertThat(parser.incrementalParses(), is(1L));
+    }
+
+    @Test
+    public void shouldParseCompletelyWhenPatternHasNoFixedDatePrefix() throws Exception {
+        String[] patterns = {"HH:mm dd/MM/yyyy", "dd MMM yyyy HH:mm:ss", "yyyy-MM-dd HH:mm:ss.SSS"};
+        for (String pattern : patterns) {
+            IncrementalTimestampParser parser = new IncrementalTimestampParser(pattern);
+            LocalDateTime dateTime = stringToDateWithTime("10/06/1987 12:30:15", "dd/MM/yyyy HH:mm:ss");
+            String text = CompiledDatePattern.compile(pattern).format(dateTime);
+            assertThat(parser.parseToEpochSecond(text), is(dateTime.withSecond(pattern.contains("ss") ? 15 : 0).toEpochSecond(ZoneOffset.UTC)));
+            assertThat(parser.parseToEpochSecond(text), is(parser.parseToEpochSecond(text)));
+            assertThat(parser.incrementalParses(), is(0L));
+        }
+    }
+
+    @Test
+    public void shouldRejectInvalidTimeAfterKnownDate() throws Exception {
+        IncrementalTimestampParser parser = new IncrementalTimestampParser("yyyy-MM-dd HH:mm:ss");
+        parser.parseToEpochSecond("2014-05-30 10:00:00");
+        String[] invalid = {"2014-05-30 10:6x:00", "2014-05-30 10:00:00 ", "2014-05-30X10:00:01", "2014-05-30 10-00-02"};
+        for (String text : invalid) {
+            try {
+                parser.parseToEpochSecond(text);
+                fail(text + " should not be parsed");
+            } catch (DateTimeParseException expected) {
+            }
+        }
+        //Smart resolver moves 24:00:00 to midnight of the next day
+        assertThat(parser.parseToEpochSecond("2014-05-30 24:00:00"), is(parser.parseToEpochSecond("2014-05-31 00:00:00")));
+        assertThat(parser.parseToEpochSecond("2014-05-30 10:00:01"), is(parser.parseToEpochSecond("2014-05-30 10:00:00") + 1));
+    }
+}
@@ -0,0 +1,75 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares week fields and adjusters on epoch days with IsoFields, WeekFields and TemporalAdjusters
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class IsoWeeksTest {
+
+    //Every day around a few year ends inside and outside of the year tables
+    private static long[] dates() {
+        int[] years = {1600, 1899, 1969, 2004, 2009, 2015, 2020, 2099, 2400};
+        long[] epochDays = new long[years.length * 62];
+        for (int i = 0; i < epochDays.length; i++) {
+            epochDays[i] = aLocalDate(years[i / 62], 12, 1).toEpochDay() + i % 62;
+        }
+        return epochDays;
+    }
+
+    @Test
+    public void shouldExtractSameWeekFieldsAsJdk() throws Exception {
+        long[] epochDays = dates();
+        int[] years = IsoWeeks.weekBasedYears(epochDays);
+        int[] weeks = IsoWeeks.weeksOfWeekBasedYear(epochDays);
+        int[] yearWeeks = IsoWeeks.yearWeeks(epochDays);
+        int[] weeksOfMonth = IsoWeeks.weeksOfMonth(epochDays);
+        for (int i = 0; i < epochDays.length; i++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+            assertThat(date.toString(), years[i], is(date.get(IsoFields.WEEK_BASED_YEAR)));
+            assertThat(date.toString(), weeks[i], is(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR)));
+            assertThat(yearWeeks[i], is(years[i] * 100 + weeks[i]));
+            assertThat(date.toString(), weeksOfMonth[i], is(date.get(WeekFields.ISO.weekOfMonth())));
+            LocalDate monday = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            assertThat(IsoWeeks.mondayOf(years[i], weeks[i]), is(monday.toEpochDay()));
+        }
+    }
+
+    @Test
+    public void shouldAdjustSameAsTemporalAdjusters() throws Exception {
+        long[] epochDays = dates();
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            long[] nextDays = epochDays.clone();
+            IsoWeeks.next(nextDays, dayOfWeek);
+            long[] startsOfWeeks = epochDays.clone();
+            IsoWeeks.previousOrSame(startsOfWeeks, dayOfWeek);
+            for (int i = 0; i < epochDays.length; i++) {
+                LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+                assertThat(nextDays[i], is(date.with(TemporalAdjusters.next(dayOfWeek)).toEpochDay()));
+                assertThat(IsoWeeks.nextOrSame(epochDays[i], dayOfWeek), is(date.with(TemporalAdjusters.nextOrSame(dayOfWeek)).toEpochDay()));
+                assertThat(IsoWeeks.previous(epochDays[i], dayOfWeek), is(date.with(TemporalAdjusters.previous(dayOfWeek)).toEpochDay()));
+                assertThat(startsOfWeeks[i], is(date.with(TemporalAdjusters.previousOrSame(dayOfWeek)).toEpochDay()));
+                for (int ordinal : new int[]{1, 2, 4, -1, -2}) {
+                    assertThat(IsoWeeks.dayOfWeekInMonth(epochDays[i], ordinal, dayOfWeek),
+                            is(date.with(TemporalAdjusters.dayOfWeekInMonth(ordinal, dayOfWeek)).toEpochDay()));
+                }
+            }
+        }
+        LocalDate friday = aLocalDate(2014, 5, 30);
+        assertThat(IsoWeeks.next(friday.toEpochDay(), DayOfWeek.TUESDAY), is(adjustDateToNextTuesday(friday).toEpochDay()));
+    }
+}
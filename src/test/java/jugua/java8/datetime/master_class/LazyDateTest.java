@@ -0,0 +1,110 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Checks lazy dates compare like LocalDate and parse only when their fields are needed
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class LazyDateTest {
+
+    @Test
+    public void shouldCompareSameAsLocalDate() throws Exception {
+        String[] patterns = {"yyyy-MM-dd", "yyyyMMdd HH:mm", "dd/MM/yyyy", "dd MMM yyyy"};
+        Random random = new Random(3);
+        for (String pattern : patterns) {
+            CompiledDatePattern compiled = CompiledDatePattern.compile(pattern);
+            for (int i = 0; i < 2000; i++) {
+                LocalDate first = addDaysToGivenLocalDate(aLocalDate(2000, 1, 1), random.nextInt(800));
+                LocalDate second = addDaysToGivenLocalDate(aLocalDate(2000, 1, 1), random.nextInt(800));
+                LazyDate firstLazy = LazyDate.of(compiled.format(first.atTime(random.nextInt(24), 0)), compiled);
+                LazyDate secondLazy = LazyDate.of(compiled.format(second.atTime(random.nextInt(24), 0)), compiled);
+                assertThat(pattern, Integer.signum(firstLazy.compareTo(secondLazy)), is(Integer.signum(first.compareTo(second))));
+                assertThat(firstLazy.isBefore(secondLazy), is(first.isBefore(second)));
+                assertThat(firstLazy.isEqual(secondLazy), is(first.isEqual(second)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotParseWhenComparingIsoText() throws Exception {
+        CompiledDatePattern pattern = CompiledDatePattern.compile("yyyy-MM-dd");
+        LazyDate bound = LazyDate.of(aLocalDate(2014, 5, 30), pattern);
+        LazyDate invalid = LazyDate.of("2014-13-45", pattern);
+        assertTrue(invalid.isAfter(bound));
+        try {
+            invalid.epochDay();
+            fail("Invalid date should not be parsed");
+        } catch (DateTimeParseException expected) {
+        }
+    }
+
+    @Test
+    public void shouldParseRegionOnlyOnce() throws Exception {
+        CountingSequence line = new CountingSequence("trade1,30/05/2014,buy");
+        LazyDate date = LazyDate.of(line, 7, 17, CompiledDatePattern.compile("dd/MM/yyyy"));
+        assertThat(line.reads, is(0));
+        assertThat(date.toString(), is("30/05/2014"));
+        assertThat(date.toLocalDate(), is(stringToLocalDate("30/05/2014", "dd/MM/yyyy")));
+        int readsOfParsing = line.reads;
+        assertThat(date.year(), is(2014));
+        assertThat(date.month(), is(5));
+        assertThat(date.day(), is(30));
+        assertThat(date.epochDay(), is(aLocalDate(2014, 5, 30).toEpochDay()));
+        assertThat(line.reads, is(readsOfParsing));
+    }
+
+    @Test
+    public void shouldWrapAsciiBytes() throws Exception {
+        byte[] record = "2014-05-30 23:59|10/06/1987".getBytes(StandardCharsets.US_ASCII);
+        LazyDate dateTime = LazyDate.ofAscii(record, 0, 16, CompiledDatePattern.compile("yyyy-MM-dd HH:mm"));
+        LazyDate date = LazyDate.ofAscii(record, 17, record.length, CompiledDatePattern.compile("dd/MM/yyyy"));
+        assertThat(dateTime.toLocalDateTime(), is(stringToDateWithTime("2014-05-30 23:59", "yyyy-MM-dd HH:mm")));
+        assertThat(dateTime.toLocalDate(), is(aLocalDate(2014, 5, 30)));
+        assertThat(date.toLocalDate(), is(aLocalDate(1987, 6, 10)));
+        assertTrue(date.isBefore(dateTime));
+    }
+
+    private static class CountingSequence implements CharSequence {
+        private final String text;
+        private int reads;
+
+        CountingSequence(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return text.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            reads += end - start;
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package jugua.java8.datetime.master_class;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.ToLongFunction;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Parses timestamps of a synthetic log file (one line every few hundred milliseconds)
+ * with generic formatter, compiled pattern and incremental parser:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.LogParsingBenchmark [lines]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class LogParsingBenchmark {
+
+    private static final String PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final int TIMESTAMP_LENGTH = PATTERN.length();
+
+    public static void main(String[] args) throws IOException {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        Path log = Files.createTempFile("synthetic", ".log");
+        try {
+            writeLog(log, lines);
+            CompiledDatePattern compiled = CompiledDatePattern.compile(PATTERN);
+            for (int round = 0; round < 3; round++) {
+                report(log, "generic formatter", text -> stringToDateWithTime(text, PATTERN).toEpochSecond(ZoneOffset.UTC));
+                report(log, "compiled pattern", compiled::parseToEpochSecond);
+                IncrementalTimestampParser parser = new IncrementalTimestampParser(PATTERN);
+                report(log, "incremental parser", parser::parseToEpochSecond);
+            }
+        } finally {
+            Files.delete(log);
+        }
+    }
+
+    private static void writeLog(Path log, int lines) throws IOException {
+        CompiledDatePattern compiled = CompiledDatePattern.compile(PATTERN);
+        LocalDateTime dateTime = stringToDateWithTime("2014-05-30 00:00:00", PATTERN);
+        try (BufferedWriter out = Files.newBufferedWriter(log)) {
+            for (int i = 0; i < lines; i++) {
+                dateTime = dateTime.plusNanos((i % 7) * 100000000L);
+                out.write(compiled.format(dateTime));
+                out.write(" INFO request " + i + " served");
+                out.newLine();
+            }
+        }
+    }
+
+    private static void report(Path log, String variant, ToLongFunction<String> parser) throws IOException {
+        long started = System.nanoTime();
+        long checksum = 0;
+        int lines = 0;
+        try (BufferedReader in = Files.newBufferedReader(log)) {
+            for (String line = in.readLine(); line != null; line = in.readLine()) {
+                checksum += parser.applyAsLong(line.substring(0, TIMESTAMP_LENGTH));
+                lines++;
+            }
+        }
+        long nanos = System.nanoTime() - started;
+        System.out.println(variant + ": " + lines * 1000000000L / nanos + " lines/s (" + checksum + ")");
+    }
+}
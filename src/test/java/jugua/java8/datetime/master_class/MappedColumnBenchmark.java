@@ -0,0 +1,75 @@
+package jugua.java8.datetime.master_class;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares heap footprint and date range scan speed of dates kept as LocalDate objects
+ * on heap with MappedTimestampColumn of epoch days kept off heap:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.MappedColumnBenchmark [rows]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class MappedColumnBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5000000;
+        LocalDate from = aLocalDate(2014, 1, 1);
+        LocalDate to = aLocalDate(2014, 12, 31);
+        Path file = Files.createTempFile("benchmark", ".col");
+        Files.delete(file);
+
+        long heapBefore = usedHeap();
+        List<LocalDate> dates = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            dates.add(LocalDate.ofEpochDay(10000 + (i * 7919L) % 20000));
+        }
+        System.out.println("List<LocalDate> heap: " + (usedHeap() - heapBefore) / rows + " bytes/row");
+
+        heapBefore = usedHeap();
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, MappedTimestampColumn.Unit.EPOCH_DAYS)) {
+            for (int i = 0; i < rows; i++) {
+                column.append(10000 + (i * 7919L) % 20000);
+            }
+            System.out.println("MappedTimestampColumn heap: " + (usedHeap() - heapBefore) / rows + " bytes/row, file with preallocated segments "
+                    + Files.size(file) / rows + " bytes/row");
+
+            for (int round = 0; round < 5; round++) {
+                report("List<LocalDate> scan", rows, () -> {
+                    long found = 0;
+                    for (LocalDate date : dates) {
+                        if (!date.isBefore(from) && !date.isAfter(to)) found++;
+                    }
+                    return found;
+                });
+                report("MappedTimestampColumn scan", rows, () -> column.scan(from, to).length);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String variant, int rows, LongSupplier operation) {
+        long started = System.nanoTime();
+        long found = operation.getAsLong();
+        long nanos = System.nanoTime() - started;
+        System.out.println(variant + ": " + nanos * 1000 / rows + "ps/row (" + found + " rows found)");
+    }
+}
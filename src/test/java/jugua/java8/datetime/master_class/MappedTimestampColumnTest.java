@@ -0,0 +1,136 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static jugua.java8.datetime.master_class.MappedTimestampColumn.Unit.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Shows off heap timestamp column surviving reopening of its file
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class MappedTimestampColumnTest {
+
+    private Path file;
+
+    @Before
+    public void createFile() throws Exception {
+        file = Files.createTempFile("timestamps", ".col");
+        Files.delete(file);
+    }
+
+    @After
+    public void deleteFile() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void shouldKeepValuesAfterReopening() throws Exception {
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, EPOCH_SECONDS)) {
+            column.append(stringToDateWithTime("10/06/1987 12:00:01", "dd/MM/yyyy HH:mm:ss"));
+            column.append(stringToDateWithTime("30/05/2014 23:59:59", "dd/MM/yyyy HH:mm:ss"));
+        }
+
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, EPOCH_SECONDS)) {
+            assertThat(column.size(), is(2L));
+            assertThat(column.dateAt(0), is(aLocalDate(1987, 6, 10)));
+            assertThat(column.dateAt(1), is(aLocalDate(2014, 5, 30)));
+            column.append(aLocalDate(2014, 6, 10));
+        }
+
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, EPOCH_SECONDS)) {
+            assertThat(column.size(), is(3L));
+            assertThat(column.get(2) % 86400, is(0L));
+        }
+    }
+
+    @Test
+    public void shouldScanRowsByDate() throws Exception {
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, EPOCH_SECONDS)) {
+            for (int hour = 0; hour < 24 * 10; hour++) {
+                column.append(stringToDateWithTime("01/06/2014 00:00", "dd/MM/yyyy HH:mm").plusHours(hour));
+            }
+
+            long[] rows = column.scan(aLocalDate(2014, 6, 3), aLocalDate(2014, 6, 4));
+
+            assertThat(rows.length, is(48));
+            assertThat(rows[0], is(48L));
+            assertThat(rows[47], is(95L));
+        }
+    }
+
+    @Test
+    public void shouldApplyDateFunctionsInPlace() throws Exception {
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, EPOCH_DAYS)) {
+            LocalDate date = aLocalDate(2014, 8, 1);
+            for (int day = 0; day < 100; day++) {
+                column.append(addDaysToGivenLocalDate(date, day));
+            }
+
+            column.replaceAll(MappedTimestampColumn.addingWorkingDays(10));
+
+            for (int day = 0; day < 100; day++) {
+                assertThat(column.dateAt(day), is(adjustWorkingDays(addDaysToGivenLocalDate(date, day), 10)));
+            }
+
+            column.replaceAll(MappedTimestampColumn.adjustingToLastDayOfAMonth());
+
+            assertThat(column.dateAt(0), is(aLocalDate(2014, 8, 31)));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotReopenColumnWithAnotherUnit() throws Exception {
+        MappedTimestampColumn.open(file, EPOCH_DAYS).close();
+        MappedTimestampColumn.open(file, EPOCH_SECONDS);
+    }
+
+    @Test
+    public void shouldNotOverwriteForeignFile() throws Exception {
+        byte[] foreign = "2014-05-30 10:00:00 not a column at all".getBytes(StandardCharsets.US_ASCII);
+        Files.write(file, foreign);
+        try {
+            MappedTimestampColumn.open(file, EPOCH_DAYS);
+            fail("Foreign file should be rejected");
+        } catch (IOException expected) {
+        }
+        assertThat(Files.readAllBytes(file), is(foreign));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotApplyEpochDayOperationToEpochSeconds() throws Exception {
+        try (MappedTimestampColumn column = MappedTimestampColumn.open(file, EPOCH_SECONDS)) {
+            column.append(aLocalDate(2014, 8, 1));
+            column.replaceAll(MappedTimestampColumn.addingWorkingDays(10));
+        }
+    }
+
+    @Test
+    public void shouldRejectCorruptHeader() throws Exception {
+        MappedTimestampColumn.open(file, EPOCH_DAYS).close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 42), 4);
+        }
+        try {
+            MappedTimestampColumn.open(file, EPOCH_DAYS);
+            fail("Unknown unit should be rejected");
+        } catch (IOException expected) {
+        }
+    }
+}
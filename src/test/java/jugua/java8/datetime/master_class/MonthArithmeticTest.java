@@ -0,0 +1,89 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static jugua.java8.datetime.master_class.MonthArithmetic.EndOfMonth.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares month arithmetic over epoch day columns with DateTimeFunctions applied to every LocalDate
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class MonthArithmeticTest {
+
+    private static final int[] SHIFTS = {0, 1, -1, 11, 13, -25, 600, -2400};
+
+    @Test
+    public void shouldClampSameAsLocalDate() throws Exception {
+        long[] epochDays = dates();
+        for (int months : SHIFTS) {
+            long[] shifted = MonthArithmetic.plusMonths(epochDays, months, CLAMP);
+            long[] shiftedInParallel = MonthArithmetic.plusMonthsInParallel(epochDays, months, CLAMP);
+            long[] shiftedByYears = MonthArithmetic.plusYears(epochDays, months, CLAMP);
+            for (int i = 0; i < epochDays.length; i++) {
+                LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+                assertThat(date + " + " + months, shifted[i], is(addMonthsToGivenLocalDate(date, months).toEpochDay()));
+                assertThat(shiftedInParallel[i], is(shifted[i]));
+                assertThat(date + " + " + months + " years", shiftedByYears[i], is(addYearsToGivenLocalDate(date, months).toEpochDay()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldStickToEndOfMonth() throws Exception {
+        long[] epochDays = dates();
+        for (int months : SHIFTS) {
+            long[] shifted = MonthArithmetic.plusMonths(epochDays, months, STICK_TO_END_OF_MONTH);
+            for (int i = 0; i < epochDays.length; i++) {
+                LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+                LocalDate expected = addMonthsToGivenLocalDate(date, months);
+                if (date.equals(adjustDateToLastDayOfAMonth(date))) {
+                    expected = adjustDateToLastDayOfAMonth(expected);
+                }
+                assertThat(date + " + " + months, shifted[i], is(expected.toEpochDay()));
+            }
+        }
+        assertThat(MonthArithmetic.plusMonths(aLocalDate(2014, 2, 28).toEpochDay(), 1, STICK_TO_END_OF_MONTH),
+                is(aLocalDate(2014, 3, 31).toEpochDay()));
+    }
+
+    @Test
+    public void shouldFindLastDaysOfMonths() throws Exception {
+        long[] epochDays = dates();
+        long[] lastDays = MonthArithmetic.lastDaysOfMonths(epochDays);
+        for (int i = 0; i < epochDays.length; i++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDays[i]);
+            assertThat(lastDays[i], is(adjustDateToLastDayOfAMonth(date).toEpochDay()));
+        }
+    }
+
+    @Test
+    public void shouldCountScheduleFromFirstPayment() throws Exception {
+        long[] clamped = MonthArithmetic.schedule(aLocalDate(2014, 1, 31).toEpochDay(), 1, 4, CLAMP);
+        assertThat(clamped, is(new long[]{aLocalDate(2014, 1, 31).toEpochDay(), aLocalDate(2014, 2, 28).toEpochDay(),
+                aLocalDate(2014, 3, 31).toEpochDay(), aLocalDate(2014, 4, 30).toEpochDay()}));
+        long[] quarterly = MonthArithmetic.schedule(aLocalDate(2015, 11, 30).toEpochDay(), 3, 2, STICK_TO_END_OF_MONTH);
+        assertThat(quarterly[1], is(aLocalDate(2016, 2, 29).toEpochDay()));
+    }
+
+    //Every day of a few leap and non leap years inside and outside of month tables
+    private static long[] dates() {
+        int[] years = {1600, 1899, 1900, 1999, 2000, 2012, 2099, 2100, 2400};
+        long[] epochDays = new long[years.length * 366];
+        int size = 0;
+        for (int year : years) {
+            for (LocalDate date = aLocalDate(year, 1, 1); date.getYear() == year; date = addDaysToGivenLocalDate(date, 1)) {
+                epochDays[size++] = date.toEpochDay();
+            }
+        }
+        return Arrays.copyOf(epochDays, size);
+    }
+}
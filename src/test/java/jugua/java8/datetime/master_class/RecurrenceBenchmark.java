@@ -0,0 +1,62 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.LocalDate;
+import java.util.function.LongSupplier;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares expanding schedules over many years by applying DateTimeFunctions adjusters
+ * one occurrence at a time with bulk expansion of Recurrence:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.RecurrenceBenchmark [years]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class RecurrenceBenchmark {
+
+    public static void main(String[] args) {
+        int years = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        LocalDate start = aLocalDate(2014, 1, 1);
+        LocalDate end = aLocalDate(2014 + years - 1, 12, 31);
+        Recurrence monthEnds = Recurrence.lastDayOfEveryNMonths(start, 1);
+        Recurrence workingDays = Recurrence.everyNWorkingDays(start, 3);
+        for (int round = 0; round < 5; round++) {
+            report("Adjusters, last day of month", () -> {
+                long checksum = 0;
+                for (LocalDate date = adjustDateToLastDayOfAMonth(start); !date.isAfter(end);
+                     date = adjustDateToLastDayOfAMonth(addMonthsToGivenLocalDate(date, 1))) {
+                    checksum += date.toEpochDay();
+                }
+                return checksum;
+            });
+            report("Recurrence.expand, last day of month", () -> checksumOf(monthEnds.expand(start, end)));
+            report("Adjusters, every 3 working days", () -> {
+                long checksum = 0;
+                for (LocalDate date = start; !date.isAfter(end); date = adjustWorkingDays(date, 3)) {
+                    checksum += date.toEpochDay();
+                }
+                return checksum;
+            });
+            report("Recurrence.expand, every 3 working days", () -> checksumOf(workingDays.expand(start, end)));
+            report("Recurrence.between, every 3 working days", () -> workingDays.between(start, end).mapToLong(LocalDate::toEpochDay).sum());
+        }
+    }
+
+    private static long checksumOf(long[] epochDays) {
+        long checksum = 0;
+        for (long epochDay : epochDays) {
+            checksum += epochDay;
+        }
+        return checksum;
+    }
+
+    private static void report(String variant, LongSupplier operation) {
+        long started = System.nanoTime();
+        long checksum = operation.getAsLong();
+        long micros = (System.nanoTime() - started) / 1000;
+        System.out.println(variant + ": " + micros + "us (" + checksum + ")");
+    }
+}
@@ -0,0 +1,111 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares recurrence rules expansion with applying adjusters step by step
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class RecurrenceTest {
+
+    @Test
+    public void shouldGenerateEverySecondTuesday() throws Exception {
+        LocalDate start = aLocalDate(2014, 6, 24);
+        List<LocalDate> expected = new ArrayList<>();
+        for (LocalDate date = start; expected.size() < 100; date = adjustDateToNextTuesday(adjustDateToNextTuesday(date))) {
+            expected.add(date);
+        }
+
+        List<LocalDate> dates = Recurrence.everyNWeeks(start, DayOfWeek.TUESDAY, 2).from(start).limit(100).collect(Collectors.toList());
+
+        assertThat(dates, is(expected));
+    }
+
+    @Test
+    public void shouldGenerateLastWorkingDayOfEachMonth() throws Exception {
+        LocalDate start = aLocalDate(2014, 1, 15);
+        List<LocalDate> expected = new ArrayList<>();
+        for (LocalDate month = start; expected.size() < 120; month = addMonthsToGivenLocalDate(month, 1)) {
+            LocalDate date = adjustDateToLastDayOfAMonth(month);
+            while (!isWorkingDay(date)) {
+                date = addDaysToGivenLocalDate(date, -1);
+            }
+            expected.add(date);
+        }
+
+        List<LocalDate> dates = Recurrence.lastWorkingDayOfEveryNMonths(start, 1).from(start).limit(120).collect(Collectors.toList());
+
+        assertThat(dates, is(expected));
+    }
+
+    @Test
+    public void shouldGenerateEveryNWorkingDays() throws Exception {
+        LocalDate start = aLocalDate(2014, 8, 10);
+        List<LocalDate> expected = new ArrayList<>();
+        for (LocalDate date = adjustWorkingDays(start, 1); expected.size() < 200; date = adjustWorkingDays(date, 3)) {
+            expected.add(date);
+        }
+
+        List<LocalDate> dates = Recurrence.everyNWorkingDays(start, 3).from(start).limit(200).collect(Collectors.toList());
+
+        assertThat(dates, is(expected));
+    }
+
+    @Test
+    public void shouldSkipDirectlyToRequestedWindow() throws Exception {
+        LocalDate start = aLocalDate(2014, 1, 1);
+        LocalDate from = aLocalDate(2031, 3, 7);
+        LocalDate to = aLocalDate(2031, 9, 30);
+        Recurrence[] recurrences = {
+                Recurrence.everyNDays(start, 10),
+                Recurrence.everyNWeeks(start, DayOfWeek.TUESDAY, 2),
+                Recurrence.lastDayOfEveryNMonths(start, 2),
+                Recurrence.lastWorkingDayOfEveryNMonths(start, 3),
+                Recurrence.everyNWorkingDays(start, 7)
+        };
+
+        for (Recurrence recurrence : recurrences) {
+            List<LocalDate> expected = recurrence.from(start)
+                    .filter(date -> !date.isBefore(from))
+                    .limit(1000)
+                    .filter(date -> !date.isAfter(to))
+                    .collect(Collectors.toList());
+            assertFalse(expected.isEmpty());
+            assertThat(recurrence.between(from, to).collect(Collectors.toList()), is(expected));
+            assertThat(recurrence.expand(from, to), is(recurrence.epochDaysBetween(from, to).toArray()));
+        }
+    }
+
+    @Test
+    public void shouldExpandSeveralYearsInBulk() throws Exception {
+        long[] lastDays = Recurrence.lastDayOfEveryNMonths(aLocalDate(2014, 1, 1), 1).expand(aLocalDate(2014, 1, 1), aLocalDate(2063, 12, 31));
+
+        assertThat(lastDays.length, is(600));
+        assertThat(LocalDate.ofEpochDay(lastDays[1]), is(aLocalDate(2014, 2, 28)));
+        assertThat(LocalDate.ofEpochDay(lastDays[599]), is(aLocalDate(2063, 12, 31)));
+    }
+
+    @Test
+    public void shouldNotStartBeforeStartDate() throws Exception {
+        //31st of May 2014 is Saturday, so last working day of May is already gone
+        LocalDate start = aLocalDate(2014, 5, 31);
+
+        assertThat(Recurrence.lastWorkingDayOfEveryNMonths(start, 1).from(start).findFirst().get(), is(aLocalDate(2014, 6, 30)));
+        assertThat(Recurrence.lastWorkingDayOfEveryNMonths(start, 1).firstOnOrAfter(aLocalDate(2014, 1, 1)), is(aLocalDate(2014, 6, 30)));
+        assertThat(Recurrence.lastWorkingDayOfEveryNMonths(start, 3).from(start).findFirst().get(), is(aLocalDate(2014, 8, 29)));
+        assertThat(Recurrence.lastDayOfEveryNMonths(start, 1).from(start).findFirst().get(), is(start));
+    }
+}
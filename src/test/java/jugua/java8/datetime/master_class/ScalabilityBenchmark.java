@@ -0,0 +1,122 @@
+package jugua.java8.datetime.master_class;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Measures how throughput of @PriorJava8/@Java8 function pairs grows with number of threads,
+ * with formatters shared by all threads or created per thread. Prints CSV lines
+ * (function, variant, threads, ops per second, checksum) to track scaling curves across releases.
+ * Results of every call are summed into the checksum, so JIT can't drop the calls as dead code:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.ScalabilityBenchmark [maxThreads] [secondsPerRun]
+ *
+ * Shared SimpleDateFormat results are wrong under contention (see ConcurrencyStressTest),
+ * its numbers are only there to show the cost of synchronizing around it.
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ScalabilityBenchmark {
+
+    private interface Operation {
+        long run(int iteration) throws Exception;
+    }
+
+    private interface OperationFactory {
+        Operation perThread();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        DateFormat sharedTimeFormat = new SimpleDateFormat("HH:mm");
+        DateTimeFormatter sharedTimeFormatter = ofPattern("HH:mm");
+        Date date = aDate(1987, 6, 10);
+        LocalDate localDate = aLocalDate(1987, 6, 10);
+
+        Map<String, OperationFactory> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("anOldDateTime,synchronized shared", () -> i -> {
+            synchronized (sharedTimeFormat) {
+                return anOldDateTime("13:30", sharedTimeFormat).getTime();
+            }
+        });
+        benchmarks.put("anOldDateTime,per thread", () -> {
+            DateFormat format = new SimpleDateFormat("HH:mm");
+            return i -> anOldDateTime("13:30", format).getTime();
+        });
+        benchmarks.put("aNewTime,shared", () -> i -> aNewTime("13:30", sharedTimeFormatter).toSecondOfDay());
+        benchmarks.put("setTimeToDate(Date),per thread", () -> {
+            DateFormat format = new SimpleDateFormat("HH:mm");
+            return i -> setTimeToDate(date, "13:30", format).getTime();
+        });
+        benchmarks.put("setTimeToDate(LocalDate),shared", () -> i -> setTimeToDate(localDate, "13:30", sharedTimeFormatter).getHour());
+        benchmarks.put("stringToDate,new formatter per call", () -> i -> stringToDate("10 Jun 1987", "dd MMM yyyy").getTime());
+        benchmarks.put("stringToLocalDate,cached formatter", () -> i -> stringToLocalDate("10 Jun 1987", "dd MMM yyyy").toEpochDay());
+        benchmarks.put("addDaysToGivenDate,-", () -> i -> addDaysToGivenDate(date, i & 1023).getTime());
+        benchmarks.put("addDaysToGivenLocalDate,-", () -> i -> addDaysToGivenLocalDate(localDate, i & 1023).toEpochDay());
+        benchmarks.put("isWorkingDay(Date),-", () -> i -> isWorkingDay(date) ? i : 0);
+        benchmarks.put("isWorkingDay(LocalDate),-", () -> i -> isWorkingDay(localDate) ? i : 0);
+
+        System.out.println("function,variant,threads,opsPerSecond,checksum");
+        for (Map.Entry<String, OperationFactory> benchmark : benchmarks.entrySet()) {
+            //Warm up run
+            measure(benchmark.getValue(), 1, 1);
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                System.out.println(benchmark.getKey() + "," + threads + "," + measure(benchmark.getValue(), threads, seconds));
+            }
+        }
+    }
+
+    //Returns "opsPerSecond,checksum"
+    private static String measure(OperationFactory factory, int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        LongAdder operations = new LongAdder();
+        LongAdder checksum = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds) + TimeUnit.MILLISECONDS.toNanos(100);
+        for (int thread = 0; thread < threads; thread++) {
+            executor.execute(() -> {
+                Operation operation = factory.perThread();
+                int iteration = 0;
+                long sum = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        sum += operation.run(iteration++);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    operations.add(iteration);
+                    checksum.add(sum);
+                    done.countDown();
+                }
+            });
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        //Timer stops when the tasks complete, pool shutdown is not measured
+        long elapsed = System.nanoTime() - started;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        return operations.sum() * TimeUnit.SECONDS.toNanos(1) / elapsed + "," + checksum.sum();
+    }
+}
@@ -0,0 +1,97 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.Random;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static jugua.java8.datetime.hands_on.oldAPI.DateTimeFunctions.addSecondsToGivenTime;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares time of day arithmetic on seconds of day with LocalTime and LocalDateTime
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class SecondsOfDayTest {
+
+    private static final long[] SHIFTS = {0, 1, -1, 10, 3600, 86399, 86400, -86401, 1000000, -7 * 86400 - 5};
+
+    @Test
+    public void shouldWrapSameAsLocalTimeAndCountDays() throws Exception {
+        int[] secondsOfDay = {0, 1, 43200, 50395, 86399, 86340};
+        LocalDateTime midnight = stringToDateWithTime("30/05/2014 00:00", "dd/MM/yyyy HH:mm");
+        for (long seconds : SHIFTS) {
+            int[] shifted = new int[secondsOfDay.length];
+            int[] dayCarries = new int[secondsOfDay.length];
+            SecondsOfDay.plusSeconds(secondsOfDay, seconds, shifted, dayCarries);
+            for (int i = 0; i < secondsOfDay.length; i++) {
+                LocalTime time = SecondsOfDay.toLocalTime(secondsOfDay[i]);
+                LocalDateTime expected = midnight.plusSeconds(secondsOfDay[i]).plusSeconds(seconds);
+                assertThat(time + " + " + seconds, shifted[i], is(addSecondsToGivenLocalTime(time, (int) seconds).toSecondOfDay()));
+                assertThat(SecondsOfDay.plusSeconds(secondsOfDay[i], seconds), is(shifted[i]));
+                assertThat(time + " + " + seconds, (long) dayCarries[i], is(daysDiff(midnight.toLocalDate(), expected.toLocalDate()) + 0L));
+                assertThat(SecondsOfDay.dayCarry(secondsOfDay[i], seconds), is((long) dayCarries[i]));
+            }
+        }
+    }
+
+    @Test
+    public void shouldShiftEveryTimeByItsOwnSecondsAndMinutes() throws Exception {
+        Random random = new Random(5);
+        int[] secondsOfDay = new int[1000];
+        int[] seconds = new int[secondsOfDay.length];
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            secondsOfDay[i] = random.nextInt(SecondsOfDay.SECONDS_PER_DAY);
+            seconds[i] = random.nextInt(400000) - 200000;
+        }
+        int[] shifted = new int[secondsOfDay.length];
+        int[] dayCarries = new int[secondsOfDay.length];
+        SecondsOfDay.plusSeconds(secondsOfDay, seconds, shifted, dayCarries);
+        int[] shiftedByMinutes = new int[secondsOfDay.length];
+        SecondsOfDay.plusMinutes(secondsOfDay, -1500, shiftedByMinutes, null);
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            LocalTime time = SecondsOfDay.toLocalTime(secondsOfDay[i]);
+            assertThat(shifted[i], is(time.plusSeconds(seconds[i]).toSecondOfDay()));
+            assertThat(dayCarries[i], is((int) SecondsOfDay.dayCarry(secondsOfDay[i], seconds[i])));
+            assertThat(shiftedByMinutes[i], is(addMinutesToGivenLocalTime(time, -1500).toSecondOfDay()));
+        }
+    }
+
+    @Test
+    public void shouldShiftEpochDayAndTimeColumnsTogether() throws Exception {
+        LocalDateTime[] dateTimes = {stringToDateWithTime("31/12/2013 23:59", "dd/MM/yyyy HH:mm"),
+                stringToDateWithTime("01/01/2014 00:00", "dd/MM/yyyy HH:mm"), stringToDateWithTime("28/02/2012 12:30", "dd/MM/yyyy HH:mm")};
+        for (long seconds : SHIFTS) {
+            long[] epochDays = new long[dateTimes.length];
+            int[] secondsOfDay = new int[dateTimes.length];
+            for (int i = 0; i < dateTimes.length; i++) {
+                epochDays[i] = dateTimes[i].toLocalDate().toEpochDay();
+                secondsOfDay[i] = SecondsOfDay.of(dateTimes[i].toLocalTime());
+            }
+            SecondsOfDay.plusSeconds(epochDays, secondsOfDay, seconds);
+            for (int i = 0; i < dateTimes.length; i++) {
+                LocalDateTime expected = dateTimes[i].plusSeconds(seconds);
+                assertThat(epochDays[i], is(expected.toLocalDate().toEpochDay()));
+                assertThat(secondsOfDay[i], is(expected.toLocalTime().toSecondOfDay()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldAddSecondsNotMinutesInLegacyFunction() throws Exception {
+        Date time = anOldDateTime("13:59:55", new SimpleDateFormat("HH:mm:ss"));
+        assertThat(addSecondsToGivenTime(time, 10), is(anOldDateTime("14:00:05", new SimpleDateFormat("HH:mm:ss"))));
+        assertThat(addSecondsToGivenTime(time, 10).getTime() - time.getTime(), is(10000L));
+        assertThat(SecondsOfDay.plusSeconds(SecondsOfDay.of(aNewTime("13:59:55", ofPattern("HH:mm:ss"))), 10),
+                is(aNewTime("14:00:05", ofPattern("HH:mm:ss")).toSecondOfDay()));
+    }
+}
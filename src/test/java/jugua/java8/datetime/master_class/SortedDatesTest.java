@@ -0,0 +1,95 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Random;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares binary search over sorted date columns with scanning them
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class SortedDatesTest {
+
+    private final long[] epochDays = sortedRandomEpochDays(5000);
+
+    @Test
+    public void shouldFindBoundsSameAsScanning() throws Exception {
+        for (long key = epochDays[0] - 2; key <= epochDays[epochDays.length - 1] + 2; key += 3) {
+            long k = key;
+            int expectedLower = (int) Arrays.stream(epochDays).filter(value -> value < k).count();
+            int expectedUpper = (int) Arrays.stream(epochDays).filter(value -> value <= k).count();
+            assertThat(SortedDates.lowerBound(epochDays, key), is(expectedLower));
+            assertThat(SortedDates.upperBound(epochDays, key), is(expectedUpper));
+            assertThat(SortedDates.exponentialSearch(epochDays, 0, key), is(expectedLower));
+            assertThat(SortedDates.exponentialSearch(epochDays, expectedLower, key), is(expectedLower));
+        }
+    }
+
+    @Test
+    public void shouldSliceRowsOfMonthAndWorkingDays() throws Exception {
+        LocalDate date = aLocalDate(2014, 8, 8);
+
+        SortedDates.Slice month = SortedDates.monthOf(epochDays, date);
+        SortedDates.Slice nextWorkingDays = SortedDates.workingDaysAfter(epochDays, date, 3);
+        int nextWorkingDay = SortedDates.firstOnOrAfterNextWorkingDay(epochDays, date);
+
+        assertThat(month.size(), is(count(aLocalDate(2014, 8, 1), aLocalDate(2014, 8, 31))));
+        assertThat(LocalDate.ofEpochDay(epochDays[month.from()]).getMonthValue(), is(8));
+        assertThat(LocalDate.ofEpochDay(epochDays[month.to()]).getMonthValue(), is(9));
+        assertThat(nextWorkingDays.size(), is(count(aLocalDate(2014, 8, 9), aLocalDate(2014, 8, 13))));
+        assertThat(nextWorkingDay, is(nextWorkingDays.from() + count(aLocalDate(2014, 8, 9), aLocalDate(2014, 8, 10))));
+        assertTrue(SortedDates.slice(epochDays, aLocalDate(2014, 8, 13), aLocalDate(2014, 8, 9)).isEmpty());
+    }
+
+    @Test
+    public void shouldSliceEpochSecondsByDatesInZone() throws Exception {
+        ZoneId london = ZoneId.of("Europe/London");
+        long[] epochSeconds = new long[24 * 7];
+        for (int hour = 0; hour < epochSeconds.length; hour++) {
+            epochSeconds[hour] = aNewZonedDateTime("29/03/2014 00:00", "dd/MM/yyyy HH:mm", london).plusHours(hour).toEpochSecond();
+        }
+
+        SortedDates.Slice slice = SortedDates.slice(epochSeconds, aLocalDate(2014, 3, 30), aLocalDate(2014, 3, 30), london);
+
+        //Day of transition to summer time has 23 hours
+        assertThat(slice.from(), is(24));
+        assertThat(slice.size(), is(23));
+    }
+
+    @Test
+    public void shouldMoveCursorForwardOnly() throws Exception {
+        SortedDates.Cursor cursor = new SortedDates.Cursor(epochDays);
+
+        for (long key = epochDays[0]; key <= epochDays[epochDays.length - 1]; key += 11) {
+            assertThat(cursor.advanceTo(key), is(SortedDates.lowerBound(epochDays, key)));
+        }
+        int position = cursor.position();
+
+        assertThat(cursor.advanceTo(aLocalDate(1970, 1, 1)), is(position));
+    }
+
+    private int count(LocalDate from, LocalDate to) {
+        return (int) Arrays.stream(epochDays).filter(value -> value >= from.toEpochDay() && value <= to.toEpochDay()).count();
+    }
+
+    private static long[] sortedRandomEpochDays(int size) {
+        Random random = new Random(3);
+        long from = aLocalDate(2010, 1, 1).toEpochDay();
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = from + random.nextInt(3000);
+        }
+        Arrays.sort(values);
+        return values;
+    }
+}
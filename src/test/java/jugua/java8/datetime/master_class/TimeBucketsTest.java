@@ -0,0 +1,109 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.*;
+import java.util.Random;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static jugua.java8.datetime.master_class.TimeBuckets.Bucket.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares bucketing of epoch seconds with truncating ZonedDateTime objects one by one
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class TimeBucketsTest {
+
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+    @Test
+    public void shouldBucketInstantsSameWayAsTruncatingZonedDateTimes() throws Exception {
+        long[] epochSeconds = randomEpochSeconds(20000);
+        long[] bucketIds = new long[epochSeconds.length];
+
+        for (TimeBuckets.Bucket bucket : TimeBuckets.Bucket.values()) {
+            TimeBuckets.bucketIds(epochSeconds, LONDON, bucket, bucketIds);
+            for (int i = 0; i < epochSeconds.length; i++) {
+                LocalDate date = truncateDateWithTimeToDateOnly(
+                        ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds[i]), LONDON).toLocalDateTime());
+                assertThat(bucket.startOf(bucketIds[i]), is(expectedBucketStart(date, bucket)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldAggregateAroundDaylightSavingTransition() throws Exception {
+        long midnight = aNewZonedDateTime("30/03/2014 00:00", "dd/MM/yyyy HH:mm", LONDON).toEpochSecond();
+        long[] epochSeconds = new long[48];
+        long[] values = new long[48];
+        for (int i = 0; i < epochSeconds.length; i++) {
+            epochSeconds[i] = midnight + i * 3600L;
+            values[i] = i;
+        }
+
+        TimeBuckets.Aggregates days = TimeBuckets.aggregate(epochSeconds, values, LONDON, DAY);
+
+        //Day of transition to summer time has only 23 hours
+        assertThat(days.size(), is(3));
+        assertThat(days.bucketStart(0), is(aLocalDate(2014, 3, 30)));
+        assertThat(days.count(0), is(23L));
+        assertThat(days.sum(0), is(253L));
+        assertThat(days.count(1), is(24L));
+        assertThat(days.count(2), is(1L));
+    }
+
+    @Test
+    public void shouldAggregateInParallelSameAsSequentially() throws Exception {
+        long[] epochSeconds = randomEpochSeconds(300000);
+        long[] values = new long[epochSeconds.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 97;
+        }
+
+        for (TimeBuckets.Bucket bucket : TimeBuckets.Bucket.values()) {
+            TimeBuckets.Aggregates sequential = TimeBuckets.aggregate(epochSeconds, values, LONDON, bucket);
+            TimeBuckets.Aggregates parallel = TimeBuckets.aggregateInParallel(epochSeconds, values, LONDON, bucket);
+            long total = 0;
+            assertThat(parallel.size(), is(sequential.size()));
+            for (int i = 0; i < sequential.size(); i++) {
+                assertThat(parallel.bucketId(i), is(sequential.bucketId(i)));
+                assertThat(parallel.count(i), is(sequential.count(i)));
+                assertThat(parallel.sum(i), is(sequential.sum(i)));
+                total += sequential.count(i);
+            }
+            assertThat(total, is((long) epochSeconds.length));
+        }
+    }
+
+    private static LocalDate expectedBucketStart(LocalDate date, TimeBuckets.Bucket bucket) {
+        switch (bucket) {
+            case DAY:
+                return date;
+            case ISO_WEEK:
+                return date.with(DayOfWeek.MONDAY);
+            case MONTH:
+                return addDaysToGivenLocalDate(adjustDateToLastDayOfAMonth(date), 1).minusMonths(1);
+            default:
+                return isWorkingDay(date) ? date : adjustWorkingDays(date, 1);
+        }
+    }
+
+    private static long[] randomEpochSeconds(int size) {
+        Random random = new Random(7);
+        long from = utcEpochSecond("01/01/2010 00:00");
+        long[] epochSeconds = new long[size];
+        for (int i = 0; i < size; i++) {
+            epochSeconds[i] = from + (long) (random.nextDouble() * 10 * 365 * 86400);
+        }
+        return epochSeconds;
+    }
+
+    private static long utcEpochSecond(String dateTime) {
+        return stringToDateWithTime(dateTime, "dd/MM/yyyy HH:mm").toEpochSecond(ZoneOffset.UTC);
+    }
+}
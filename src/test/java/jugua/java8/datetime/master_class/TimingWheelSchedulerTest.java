@@ -0,0 +1,161 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.*;
+import java.util.*;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Drives timing wheel by fake clock and compares fired deadlines with a priority queue
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class TimingWheelSchedulerTest {
+
+    private static final ZoneId KIEV = ZoneId.of("Europe/Kiev");
+
+    @Test
+    public void shouldFireSameDeadlinesAsPriorityQueue() throws Exception {
+        FakeClock clock = new FakeClock(Instant.parse("2014-05-30T10:00:00Z"), ZoneOffset.UTC);
+        TimingWheelScheduler<Long> scheduler = new TimingWheelScheduler<>(clock);
+        PriorityQueue<Long> expected = new PriorityQueue<>();
+        Map<Long, TimingWheelScheduler<Long>.Timeout> timeouts = new HashMap<>();
+        Random random = new Random(11);
+        long start = clock.instant().getEpochSecond();
+        for (int step = 0; step < 3000; step++) {
+            long now = clock.instant().getEpochSecond();
+            //Deadlines from a few seconds to a couple of years ahead, unique to track them
+            long deadline = now + (random.nextBoolean() ? random.nextInt(200) : random.nextInt(60000000)) * 1000L + step % 1000;
+            if (!timeouts.containsKey(deadline)) {
+                timeouts.put(deadline, scheduler.schedule(deadline, deadline));
+                expected.add(deadline);
+            }
+            if (step % 7 == 0 && !expected.isEmpty()) {
+                Long cancelled = expected.toArray(new Long[0])[random.nextInt(expected.size())];
+                assertTrue(timeouts.get(cancelled).cancel());
+                expected.remove(cancelled);
+            }
+            clock.advanceMillis(random.nextInt(step % 100 == 0 ? 100000000 : 100000) * 1000L);
+            List<Long> fired = new ArrayList<>();
+            scheduler.advance(fired::add);
+            List<Long> expectedFired = new ArrayList<>();
+            while (!expected.isEmpty() && expected.peek() <= clock.instant().getEpochSecond()) {
+                expectedFired.add(expected.poll());
+            }
+            Collections.sort(fired);
+            assertThat("at " + (clock.instant().getEpochSecond() - start), fired, is(expectedFired));
+            assertThat(scheduler.size(), is(expected.size()));
+        }
+        for (Long deadline : expected) {
+            assertFalse(timeouts.get(deadline).isExpired());
+        }
+    }
+
+    @Test
+    public void shouldFireWorkingDaysDeadlineAtLocalTime() throws Exception {
+        //Friday evening in Kiev
+        FakeClock clock = new FakeClock(stringToDateWithTime("30/05/2014 19:00", "dd/MM/yyyy HH:mm"), KIEV);
+        TimingWheelScheduler<String> scheduler = new TimingWheelScheduler<>(clock);
+        TimingWheelScheduler<String>.Timeout reminder = scheduler.scheduleInWorkingDays(aLocalDate(2014, 5, 30), 1,
+                LocalTime.of(9, 0), KIEV, "pay invoice");
+        ZonedDateTime monday = aNewZonedDateTime("02/06/2014 09:00", "dd/MM/yyyy HH:mm", KIEV);
+        assertThat(reminder.deadline(), is(monday.toEpochSecond()));
+
+        List<String> fired = new ArrayList<>();
+        clock.set(monday.toInstant().minusSeconds(1));
+        assertThat(scheduler.advance(fired::add), is(0));
+        clock.advanceMillis(1000);
+        assertThat(scheduler.advance(fired::add), is(1));
+        assertThat(fired, is(Collections.singletonList("pay invoice")));
+        assertTrue(reminder.isExpired());
+        assertFalse(reminder.cancel());
+    }
+
+    @Test
+    public void shouldAcceptDeadlinesInOtherZonesAndInThePast() throws Exception {
+        FakeClock clock = new FakeClock(Instant.parse("2014-03-29T12:00:00Z"), ZoneOffset.UTC);
+        TimingWheelScheduler<String> scheduler = new TimingWheelScheduler<>(clock);
+        ZonedDateTime kievDeadline = aNewZonedDateTime("30/03/2014 04:30", "dd/MM/yyyy HH:mm", KIEV);
+        scheduler.schedule(transformToNewTimeZone(kievDeadline, "America/New_York"), "after DST switch");
+        scheduler.schedule(clock.instant().getEpochSecond() - 3600, "overdue");
+        TimingWheelScheduler<String>.Timeout cancelled = scheduler.schedule(clock.instant().getEpochSecond() + 10, "cancelled");
+        assertTrue(cancelled.cancel());
+        assertTrue(cancelled.isCancelled());
+
+        List<String> fired = new ArrayList<>();
+        scheduler.advance(fired::add);
+        assertThat(fired, is(Collections.singletonList("overdue")));
+        //Kiev switched from 03:00 to 04:00, so 04:30 local is 01:30 UTC
+        scheduler.advanceTo(Instant.parse("2014-03-30T01:29:59Z").getEpochSecond(), fired::add);
+        assertThat(fired.size(), is(1));
+        scheduler.advanceTo(Instant.parse("2014-03-30T01:30:00Z").getEpochSecond(), fired::add);
+        assertThat(fired, is(Arrays.asList("overdue", "after DST switch")));
+        assertThat(scheduler.size(), is(0));
+    }
+
+    @Test
+    public void shouldLetCallbackCancelDeadlinesOfTheSameSecond() throws Exception {
+        FakeClock clock = new FakeClock(Instant.parse("2014-05-30T10:00:00Z"), ZoneOffset.UTC);
+        TimingWheelScheduler<String> scheduler = new TimingWheelScheduler<>(clock);
+        long deadline = clock.instant().getEpochSecond() + 5;
+        Map<String, TimingWheelScheduler<String>.Timeout> timeouts = new LinkedHashMap<>();
+        for (String task : Arrays.asList("A", "B", "C")) {
+            timeouts.put(task, scheduler.schedule(deadline, task));
+        }
+        List<String> fired = new ArrayList<>();
+        clock.advanceMillis(5000);
+        scheduler.advance(task -> {
+            fired.add(task);
+            //First callback cancels its siblings which haven't fired yet
+            if (fired.size() == 1) {
+                for (Map.Entry<String, TimingWheelScheduler<String>.Timeout> entry : timeouts.entrySet()) {
+                    if (!entry.getKey().equals(task)) assertTrue(entry.getValue().cancel());
+                }
+            }
+        });
+        assertThat(fired.size(), is(1));
+        for (Map.Entry<String, TimingWheelScheduler<String>.Timeout> entry : timeouts.entrySet()) {
+            assertThat(entry.getValue().isExpired(), is(fired.contains(entry.getKey())));
+            assertThat(entry.getValue().isCancelled(), is(!fired.contains(entry.getKey())));
+            assertFalse(entry.getValue().cancel());
+        }
+        assertThat(scheduler.size(), is(0));
+    }
+
+    @Test
+    public void shouldKeepRestOfBatchWhenCallbackThrows() throws Exception {
+        FakeClock clock = new FakeClock(Instant.parse("2014-05-30T10:00:00Z"), ZoneOffset.UTC);
+        TimingWheelScheduler<String> scheduler = new TimingWheelScheduler<>(clock);
+        long deadline = clock.instant().getEpochSecond() + 5;
+        List<TimingWheelScheduler<String>.Timeout> timeouts = new ArrayList<>();
+        for (String task : Arrays.asList("A", "B", "C")) {
+            timeouts.add(scheduler.schedule(deadline, task));
+        }
+        List<String> fired = new ArrayList<>();
+        clock.advanceMillis(5000);
+        try {
+            scheduler.advance(task -> {
+                fired.add(task);
+                throw new IllegalStateException("Callback failed on " + task);
+            });
+            fail("Callback exception should reach the caller");
+        } catch (IllegalStateException expected) {
+        }
+        assertThat(fired.size(), is(1));
+        assertThat(scheduler.size(), is(2));
+
+        assertThat(scheduler.advance(fired::add), is(2));
+        assertThat(new HashSet<>(fired), is(new HashSet<>(Arrays.asList("A", "B", "C"))));
+        assertThat(scheduler.size(), is(0));
+        for (TimingWheelScheduler<String>.Timeout timeout : timeouts) {
+            assertTrue(timeout.isExpired());
+            assertFalse(timeout.cancel());
+        }
+    }
+}
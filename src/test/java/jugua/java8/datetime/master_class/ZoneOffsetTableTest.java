@@ -0,0 +1,84 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Checks compiled zone offset tables against zone rules and zone conversion functions
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ZoneOffsetTableTest {
+
+    private static final String[] ZONES = {"Europe/London", "Europe/Kiev", "America/Sao_Paulo", "Australia/Lord_Howe", "UTC"};
+
+    @Test
+    public void shouldMatchZoneRulesAroundEveryTransition() throws Exception {
+        for (String zone : ZONES) {
+            ZoneOffsetTable.compile(ZoneId.of(zone), 1970, 2040).verify();
+        }
+    }
+
+    @Test
+    public void shouldConvertSameWayAsZoneConversionFunctions() throws Exception {
+        ZoneOffsetTable kiev = ZoneOffsetTable.compile(ZoneId.of("Europe/Kiev"), 2010, 2020);
+        ZoneOffsetTable london = ZoneOffsetTable.compile(ZoneId.of("Europe/London"), 2010, 2020);
+
+        for (LocalDateTime dateTime = stringToDateWithTime("01/01/2009 00:00", "dd/MM/yyyy HH:mm");
+             dateTime.getYear() < 2022; dateTime = dateTime.plusMinutes(173)) {
+            String text = dateTime.format(ofPattern("dd/MM/yyyy HH:mm"));
+            ZonedDateTime inLondon = aNewZonedDateTime(text, "dd/MM/yyyy HH:mm", ZoneId.of("Europe/London"));
+            Calendar calendar = anOldCalendarInTimeZone(text, "dd/MM/yyyy HH:mm", TimeZone.getTimeZone("Europe/London"));
+
+            assertThat(london.toEpochSecond(dateTime), is(inLondon.toEpochSecond()));
+            //Old API resolves overlaps to later offset, unlike ZonedDateTime
+            if (ZoneId.of("Europe/London").getRules().getValidOffsets(dateTime).size() == 1) {
+                assertThat(london.toEpochSecond(dateTime), is(calendar.getTimeInMillis() / 1000));
+            }
+            assertThat(kiev.toLocalDateTime(inLondon.toEpochSecond()), is(transformToNewTimeZone(inLondon, "Europe/Kiev").toLocalDateTime()));
+        }
+    }
+
+    @Test
+    public void shouldLoadTablesWrittenToFile() throws Exception {
+        Path file = Files.createTempFile("zones", ".tbl");
+        try {
+            ZoneOffsetTable.write(file, Arrays.asList(
+                    ZoneOffsetTable.compile(ZoneId.of("Europe/London"), 2000, 2030),
+                    ZoneOffsetTable.compile(ZoneId.of("Europe/Kiev"), 2000, 2030)));
+
+            Map<String, ZoneOffsetTable> tables = ZoneOffsetTable.load(file);
+
+            assertThat(tables.size(), is(2));
+            tables.get("Europe/Kiev").verify();
+            ZonedDateTime summer = aNewZonedDateTime("10/06/2014 13:00", "dd/MM/yyyy HH:mm", ZoneId.of("Europe/London"));
+            assertThat(tables.get("Europe/London").offsetSecondsAt(summer.toEpochSecond()), is(3600));
+            assertThat(tables.get("Europe/Kiev").toLocalDateTime(summer.toEpochSecond()).getHour(), is(15));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void shouldFallBackToZoneRulesOutsideOfCompiledYears() throws Exception {
+        ZoneOffsetTable london = ZoneOffsetTable.compile(ZoneId.of("Europe/London"), 2010, 2012);
+        ZonedDateTime summer = aNewZonedDateTime("10/06/1987 13:00", "dd/MM/yyyy HH:mm", ZoneId.of("Europe/London"));
+
+        assertThat(london.offsetSecondsAt(summer.toEpochSecond()), is(3600));
+        assertThat(london.toEpochSecond(summer.toLocalDateTime()), is(summer.toEpochSecond()));
+    }
+}
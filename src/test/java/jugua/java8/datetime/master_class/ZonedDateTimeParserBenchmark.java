@@ -0,0 +1,52 @@
+package jugua.java8.datetime.master_class;
+
+import java.time.ZoneId;
+import java.util.function.IntToLongFunction;
+
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Compares parsing zoned date/time strings with DateTimeFunctions.aNewZonedDateTime against
+ * reusable ZonedDateTimeParser, both into ZonedDateTime objects and into epoch seconds:
+ *
+ *   java -cp classes:test-classes jugua.java8.datetime.master_class.ZonedDateTimeParserBenchmark [iterations]
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ZonedDateTimeParserBenchmark {
+
+    private static final String PATTERN = "dd/MM/yyyy HH:mm:ss";
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+        ZoneId kiev = ZoneId.of("Europe/Kiev");
+        String[] texts = new String[1024];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = stringToDateWithTime("30/05/2014 10:00:00", PATTERN).plusMinutes(i * 37L).format(FormatterCache.of(PATTERN));
+        }
+        ZonedDateTimeParser parser = new ZonedDateTimeParser(PATTERN, kiev);
+        for (int round = 0; round < 5; round++) {
+            report("aNewZonedDateTime", iterations, i -> {
+                try {
+                    return aNewZonedDateTime(texts[i & 1023], PATTERN, kiev).toEpochSecond();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            report("ZonedDateTimeParser.parse", iterations, i -> parser.parse(texts[i & 1023]).toEpochSecond());
+            report("ZonedDateTimeParser.parseToEpochSecond", iterations, i -> parser.parseToEpochSecond(texts[i & 1023]));
+        }
+    }
+
+    private static void report(String variant, int iterations, IntToLongFunction operation) {
+        long started = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += operation.applyAsLong(i);
+        }
+        long nanos = System.nanoTime() - started;
+        System.out.println(variant + ": " + nanos / iterations + "ns/op (" + checksum + ")");
+    }
+}
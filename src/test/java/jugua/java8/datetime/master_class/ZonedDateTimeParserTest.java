@@ -0,0 +1,73 @@
+package jugua.java8.datetime.master_class;
+
+import org.junit.Test;
+
+import java.time.*;
+
+import static java.time.format.DateTimeFormatter.ofPattern;
+import static jugua.java8.datetime.master_class.DateTimeFunctions.*;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * DateTimeHacking
+ *
+ * Differential tests of ZonedDateTimeParser against aNewZonedDateTime
+ *
+ * @author Oleg Tsal-Tsalko
+ */
+public class ZonedDateTimeParserTest {
+
+    private static final String FORMAT = "dd/MM/yyyy HH:mm";
+
+    @Test
+    public void shouldResolveGapSameWayAsZonedDateTime() throws Exception {
+        ZonedDateTimeParser parser = new ZonedDateTimeParser(FORMAT, ZoneId.of("Europe/London"));
+
+        //There is no 1:30 on 30th of March 2014 in London, clock jumps from 1:00 to 2:00
+        ZonedDateTime inGap = parser.parse("30/03/2014 01:30");
+
+        assertThat(inGap, is(aNewZonedDateTime("30/03/2014 01:30", FORMAT, ZoneId.of("Europe/London"))));
+        assertThat(inGap.getHour(), is(2));
+    }
+
+    @Test
+    public void shouldResolveOverlapSameWayAsZonedDateTime() throws Exception {
+        ZonedDateTimeParser parser = new ZonedDateTimeParser(FORMAT, ZoneId.of("Europe/London"));
+
+        //1:30 happens twice on 26th of October 2014 in London, earlier offset wins
+        ZonedDateTime inOverlap = parser.parse("26/10/2014 01:30");
+
+        assertThat(inOverlap, is(aNewZonedDateTime("26/10/2014 01:30", FORMAT, ZoneId.of("Europe/London"))));
+        assertThat(inOverlap.getOffset(), is(ZoneOffset.ofHours(1)));
+    }
+
+    @Test
+    public void shouldGiveSameResultsAsANewZonedDateTimeAroundTransitions() throws Exception {
+        String[] zones = {"Europe/London", "Europe/Kiev", "America/Sao_Paulo", "Australia/Lord_Howe", "UTC", "+02:00", "Etc/GMT-2"};
+        for (String zoneId : zones) {
+            ZoneId zone = ZoneId.of(zoneId);
+            ZonedDateTimeParser parser = new ZonedDateTimeParser(FORMAT, zone);
+            for (LocalDateTime dateTime = stringToDateWithTime("01/01/2012 00:00", FORMAT);
+                 dateTime.getYear() < 2016; dateTime = dateTime.plusMinutes(15)) {
+                String text = dateTime.format(ofPattern(FORMAT));
+                ZonedDateTime expected = aNewZonedDateTime(text, FORMAT, zone);
+                assertThat(parser.parse(text), is(expected));
+                assertThat(parser.parseToEpochSecond(text), is(expected.toEpochSecond()));
+            }
+            //Going backwards makes parser leave its cached window on the other side
+            for (LocalDateTime dateTime = stringToDateWithTime("31/12/2015 23:45", FORMAT);
+                 dateTime.getYear() >= 2012; dateTime = dateTime.minusMinutes(437)) {
+                assertThat(parser.of(dateTime), is(ZonedDateTime.of(dateTime, zone)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepZoneOfFixedOffsetRegion() throws Exception {
+        ZonedDateTime utc = new ZonedDateTimeParser(FORMAT, ZoneId.of("UTC")).parse("10/06/1987 13:00");
+
+        assertThat(utc.getZone(), is(ZoneId.of("UTC")));
+        assertThat(utc, is(aNewZonedDateTime("10/06/1987 13:00", FORMAT, ZoneId.of("UTC"))));
+    }
+}